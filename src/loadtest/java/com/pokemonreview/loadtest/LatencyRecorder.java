@@ -0,0 +1,53 @@
+package com.pokemonreview.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies in microseconds and failures per endpoint. Each client records into its own instance, so recording
+ * needs no synchronization; the instances are merged once the run is over.
+ */
+class LatencyRecorder {
+
+    /** Stands in for a status code when the request failed without a response. */
+    static final int NO_RESPONSE = 0;
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, Map<Integer, Long>> failures = new TreeMap<>();
+
+    void record(String endpoint, long latencyNanos, int status) {
+        histogram(endpoint).recordValue(Math.max(1, latencyNanos / 1000));
+        if (status < 200 || status >= 300) {
+            failures.computeIfAbsent(endpoint, key -> new TreeMap<>()).merge(status, 1L, Long::sum);
+        }
+    }
+
+    void add(LatencyRecorder other) {
+        other.histograms.forEach((endpoint, histogram) -> histogram(endpoint).add(histogram));
+        other.failures.forEach((endpoint, statuses) -> statuses.forEach((status, count) ->
+                failures.computeIfAbsent(endpoint, key -> new TreeMap<>()).merge(status, count, Long::sum)));
+    }
+
+    /** Histograms by endpoint, in endpoint order. */
+    Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /** Counts of failed requests by status code, {@link #NO_RESPONSE} for those that got no response. */
+    Map<Integer, Long> getFailures(String endpoint) {
+        return failures.getOrDefault(endpoint, Map.of());
+    }
+
+    static Histogram newHistogram() {
+        // auto-resizing, so a stalled request is recorded as it was instead of being clipped
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    private Histogram histogram(String endpoint) {
+        return histograms.computeIfAbsent(endpoint, key -> newHistogram());
+    }
+}
@@ -0,0 +1,56 @@
+package com.pokemonreview.loadtest;
+
+import com.pokemonreview.api.ApiApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs a load test against the API and writes the report to the {@code report} setting (default
+ * {@code target/loadtest/report.txt}). Without a {@code target} setting the application is started in this JVM with the
+ * {@code loadtest} profile, on an in-memory H2 database and a random port, and stopped afterwards. Client and server
+ * then share the machine, so the numbers compare runs with each other rather than with production.
+ * <p>
+ * Run with: {@code mvn -Ploadtest compile exec:java -Dexec.args="rate=200 clients=32 duration=60"}
+ */
+public class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromArgs(args);
+        LoadTestReport report = run(settings);
+        System.out.print(report.summary());
+        log.info("Report written to {}", settings.getReport().toAbsolutePath());
+    }
+
+    static LoadTestReport run(LoadTestSettings settings) throws Exception {
+        ConfigurableApplicationContext application = null;
+        String target = settings.getTarget();
+        if (target == null) {
+            application = startApplication();
+            target = urlOf(application);
+        }
+        try {
+            LoadTestReport report = new LoadTestRunner(settings, target).run();
+            report.write(settings.getReport());
+            return report;
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(ApiApplication.class)
+                .profiles("loadtest")
+                .run("--server.port=0");
+    }
+
+    static String urlOf(ConfigurableApplicationContext application) {
+        return "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+    }
+}
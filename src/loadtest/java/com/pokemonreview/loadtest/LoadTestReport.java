@@ -0,0 +1,111 @@
+package com.pokemonreview.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput and latency percentiles per endpoint, followed by the full percentile distribution of each endpoint in
+ * HdrHistogram's text format so runs can be plotted and compared.
+ */
+class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestSettings settings;
+    private final String target;
+    private final Duration measured;
+    private final LatencyRecorder recorder;
+    private final long tokenRefreshes;
+
+    LoadTestReport(LoadTestSettings settings, String target, Duration measured, LatencyRecorder recorder, long tokenRefreshes) {
+        this.settings = settings;
+        this.target = target;
+        this.measured = measured;
+        this.recorder = recorder;
+        this.tokenRefreshes = tokenRefreshes;
+    }
+
+    LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    void write(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            out.print(summary());
+            for (Map.Entry<String, Histogram> entry : recorder.getHistograms().entrySet()) {
+                out.println();
+                out.println("Latency distribution of " + entry.getKey() + " (ms)");
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        Files.write(file, bytes.toByteArray());
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Target %s, %.1f requests/s scheduled over %d clients, %d s warmup, %d s measured%n",
+                target, settings.getRate(), settings.getClients(), settings.getWarmup().toSeconds(), measured.toSeconds()));
+        summary.append("Latencies count from each request's scheduled start, so time spent waiting for a free client is included")
+                .append(String.format("%n%n"));
+        summary.append(String.format("%-40s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        Histogram all = LatencyRecorder.newHistogram();
+        long allErrors = 0;
+        for (Map.Entry<String, Histogram> entry : recorder.getHistograms().entrySet()) {
+            long errors = errors(entry.getKey());
+            allErrors += errors;
+            all.add(entry.getValue());
+            summary.append(row(entry.getKey(), entry.getValue(), errors));
+        }
+        summary.append(row("all", all, allErrors));
+        summary.append(failures(recorder));
+        summary.append(String.format("%nClients logged in again %d times as their tokens aged; those logins are not timed%n", tokenRefreshes));
+        return summary.toString();
+    }
+
+    private long errors(String endpoint) {
+        return recorder.getFailures(endpoint).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    static String failures(LatencyRecorder recorder) {
+        StringBuilder failures = new StringBuilder();
+        for (String endpoint : recorder.getHistograms().keySet()) {
+            Map<Integer, Long> statuses = recorder.getFailures(endpoint);
+            if (!statuses.isEmpty()) {
+                failures.append(String.format("%nFailures of %s: %s", endpoint, statuses.entrySet().stream()
+                        .map(failure -> (failure.getKey() == LatencyRecorder.NO_RESPONSE ? "no response" : "HTTP " + failure.getKey())
+                                + " x" + failure.getValue())
+                        .collect(Collectors.joining(", "))));
+            }
+        }
+        return failures.toString();
+    }
+
+    private String row(String endpoint, Histogram histogram, long errors) {
+        return String.format("%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                endpoint,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / Math.max(measured.toNanos() / 1e9, 1e-9),
+                histogram.getMean() / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,150 @@
+package com.pokemonreview.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the API at a fixed rate. Requests are scheduled at evenly spaced start times and the clients take the next
+ * start time whenever they are free. Latency counts from the scheduled start rather than from when a client got
+ * around to sending, so a slow server cannot hide its stalls by holding up the clients that measure it.
+ */
+class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final LoadTestSettings settings;
+    private final String target;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nextRequest = new AtomicLong();
+    private final AtomicLong tokenRefreshes = new AtomicLong();
+    private final Operation[] operations;
+
+    LoadTestRunner(LoadTestSettings settings, String target) {
+        this.settings = settings;
+        this.target = target;
+        this.operations = weighted(settings.getMix());
+    }
+
+    LoadTestReport run() throws IOException, InterruptedException {
+        List<VirtualUser> users = setUp();
+
+        long intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRate()));
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        log.info("Sending {} requests/s from {} clients for {} s, the first {} s as warmup", settings.getRate(),
+                settings.getClients(), (end - start) / TimeUnit.SECONDS.toNanos(1), settings.getWarmup().toSeconds());
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            VirtualUser user = users.get(i);
+            Random random = new Random(settings.getSeed() + i);
+            Thread thread = new Thread(() -> drive(user, random, recorder, start, intervalNanos, measureFrom, end), "loadtest-client-" + i);
+            recorders.add(recorder);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Duration measured = Duration.ofNanos(Math.max(settings.getDuration().toNanos(), System.nanoTime() - measureFrom));
+
+        LatencyRecorder merged = new LatencyRecorder();
+        recorders.forEach(merged::add);
+        return new LoadTestReport(settings, target, measured, merged, tokenRefreshes.get());
+    }
+
+    private List<VirtualUser> setUp() throws IOException, InterruptedException {
+        List<Integer> pokemonIds = Collections.synchronizedList(new ArrayList<>());
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < settings.getClients(); i++) {
+            VirtualUser user = new VirtualUser(objectMapper, settings, target, "loadtest-" + run + "-" + i, pokemonIds);
+            user.register();
+            if (user.login() != 200) {
+                throw new IllegalStateException("Could not log in as a load test user");
+            }
+            users.add(user);
+        }
+
+        Random random = new Random(settings.getSeed());
+        VirtualUser seeder = users.get(0);
+        for (int i = 0; i < settings.getPokemon(); i++) {
+            int pokemonId = seeder.createPokemon(i);
+            pokemonIds.add(pokemonId);
+            for (int j = 0; j < settings.getReviewsPerPokemon(); j++) {
+                seeder.createReview(pokemonId, random);
+            }
+        }
+        log.info("Registered {} users and created {} pokemon with {} reviews each", users.size(), pokemonIds.size(),
+                settings.getReviewsPerPokemon());
+        return users;
+    }
+
+    private void drive(VirtualUser user, Random random, LatencyRecorder recorder, long start, long intervalNanos,
+                       long measureFrom, long end) {
+        while (true) {
+            long scheduled = start + nextRequest.getAndIncrement() * intervalNanos;
+            if (scheduled >= end) {
+                return;
+            }
+            try {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Operation operation = operations[random.nextInt(operations.length)];
+            int status;
+            try {
+                status = user.send(operation, random);
+            } catch (IOException ex) {
+                status = LatencyRecorder.NO_RESPONSE;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (scheduled >= measureFrom) {
+                recorder.record(operation.getEndpoint(), System.nanoTime() - scheduled, status);
+            }
+
+            // between requests, so the login does not count toward the latency of the request that happened to wait
+            if (user.needsLogin()) {
+                try {
+                    user.login();
+                    tokenRefreshes.incrementAndGet();
+                } catch (IOException ex) {
+                    log.warn("Could not refresh a load test token", ex);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // one slot per unit of weight, so picking a random slot follows the mix
+    private static Operation[] weighted(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> slots.addAll(Collections.nCopies(weight, operation)));
+        return slots.toArray(new Operation[0]);
+    }
+}
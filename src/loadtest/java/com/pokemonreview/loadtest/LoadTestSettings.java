@@ -0,0 +1,93 @@
+package com.pokemonreview.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Load test settings, given as {@code name=value} arguments; a leading {@code --} is accepted too. Unset ones keep the
+ * defaults below. Durations are in seconds.
+ */
+@Getter
+public class LoadTestSettings {
+
+    /** Base URL of a running instance; without one the application is started in-process on H2. */
+    private String target;
+    /** Requests per second over all clients. */
+    private double rate = 200;
+    /** Concurrent clients, each with its own user, token and connection. */
+    private int clients = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    /** Pokemon created before the run, each with {@code reviewsPerPokemon} reviews. */
+    private int pokemon = 50;
+    private int reviewsPerPokemon = 5;
+    private int pageSize = 10;
+    /** Tokens expire after 70 seconds, so clients log in again once theirs is this old. */
+    private Duration tokenRefresh = Duration.ofSeconds(50);
+    private Map<Operation, Integer> mix = parseMix("browse=40,reviews=40,create=13,login=5,register=2");
+    private Path report = Path.of("target/loadtest/report.txt");
+    private long seed = 42;
+
+    public static LoadTestSettings fromArgs(String... args) {
+        LoadTestSettings settings = new LoadTestSettings();
+        parse(args, (name, value) -> {
+            switch (name) {
+                case "target": settings.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value; break;
+                case "rate": settings.rate = Double.parseDouble(value); break;
+                case "clients": settings.clients = Integer.parseInt(value); break;
+                case "warmup": settings.warmup = Duration.ofSeconds(Long.parseLong(value)); break;
+                case "duration": settings.duration = Duration.ofSeconds(Long.parseLong(value)); break;
+                case "pokemon": settings.pokemon = Integer.parseInt(value); break;
+                case "reviews-per-pokemon": settings.reviewsPerPokemon = Integer.parseInt(value); break;
+                case "page-size": settings.pageSize = Integer.parseInt(value); break;
+                case "token-refresh": settings.tokenRefresh = Duration.ofSeconds(Long.parseLong(value)); break;
+                case "mix": settings.mix = parseMix(value); break;
+                case "report": settings.report = Path.of(value); break;
+                case "seed": settings.seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown setting " + name);
+            }
+        });
+        if (settings.rate <= 0 || settings.clients <= 0 || settings.pokemon <= 0) {
+            throw new IllegalArgumentException("rate, clients and pokemon must be positive");
+        }
+        return settings;
+    }
+
+    /**
+     * Hands each {@code name=value} argument to the consumer; a leading {@code --} is dropped.
+     */
+    static void parse(String[] args, BiConsumer<String, String> setting) {
+        for (String arg : args) {
+            String nameValue = arg.startsWith("--") ? arg.substring(2) : arg;
+            if (!nameValue.contains("=")) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            setting.accept(nameValue.substring(0, nameValue.indexOf('=')), nameValue.substring(nameValue.indexOf('=') + 1));
+        }
+    }
+
+    // weights per operation, e.g. "browse=40,reviews=40,create=13,login=5,register=2"
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in mix but got " + part);
+            }
+            int parsed = Integer.parseInt(weight[1].trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Weights in mix must not be negative");
+            }
+            mix.put(Operation.fromKey(weight[0].trim()), parsed);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pokemonreview.loadtest;
+
+/**
+ * The requests a virtual user sends, reported per endpoint.
+ */
+public enum Operation {
+    REGISTER("register", "POST /api/auth/register"),
+    LOGIN("login", "POST /api/auth/login"),
+    BROWSE_POKEMON("browse", "GET /api/pokemon"),
+    READ_REVIEWS("reviews", "GET /api/pokemon/{pokemonId}/reviews"),
+    CREATE_REVIEW("create", "POST /api/pokemon/{pokemonId}/reviews");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    /** Name used for the operation in the {@code mix} setting. */
+    public String getKey() {
+        return key;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key + " in mix");
+    }
+}
@@ -0,0 +1,169 @@
+package com.pokemonreview.loadtest;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replayed latency percentiles per endpoint next to the captured ones and, when given, those of an earlier replay,
+ * followed by the full distribution of each endpoint. The replayed histograms are also written in HdrHistogram's log
+ * format, one tagged histogram per endpoint, for a later replay to compare with.
+ */
+class ReplayReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final ReplaySettings settings;
+    private final String target;
+    private final Duration elapsed;
+    private final LatencyRecorder replayed;
+    private final LatencyRecorder captured;
+    private final Map<String, Histogram> previous;
+    private final long skipped;
+    private final long logins;
+
+    ReplayReport(ReplaySettings settings, String target, Duration elapsed, LatencyRecorder replayed, LatencyRecorder captured,
+                 Map<String, Histogram> previous, long skipped, long logins) {
+        this.settings = settings;
+        this.target = target;
+        this.elapsed = elapsed;
+        this.replayed = replayed;
+        this.captured = captured;
+        this.previous = previous;
+        this.skipped = skipped;
+        this.logins = logins;
+    }
+
+    LatencyRecorder getReplayed() {
+        return replayed;
+    }
+
+    LatencyRecorder getCaptured() {
+        return captured;
+    }
+
+    long getSkipped() {
+        return skipped;
+    }
+
+    void write(Path file) throws IOException {
+        createParent(file);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            out.print(summary());
+            for (Map.Entry<String, Histogram> entry : replayed.getHistograms().entrySet()) {
+                out.println();
+                out.println("Replayed latency distribution of " + entry.getKey() + " (ms)");
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        Files.write(file, bytes.toByteArray());
+    }
+
+    void writeHistograms(Path file) throws IOException {
+        createParent(file);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("Replayed latencies in microseconds against " + target);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Map.Entry<String, Histogram> entry : replayed.getHistograms().entrySet()) {
+                Histogram histogram = entry.getValue().copy();
+                histogram.setTag(tagOf(entry.getKey()));
+                writer.outputIntervalHistogram(0, elapsed.toMillis() / 1000.0, histogram, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    /** Reads histograms written by {@link #writeHistograms}, by endpoint. */
+    static Map<String, Histogram> readHistograms(Path file) throws IOException {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        HistogramLogReader reader = new HistogramLogReader(file.toFile());
+        try {
+            EncodableHistogram histogram;
+            while ((histogram = reader.nextIntervalHistogram()) != null) {
+                if (histogram instanceof Histogram && histogram.getTag() != null) {
+                    histograms.computeIfAbsent(histogram.getTag().replaceFirst("_", " "), key -> LatencyRecorder.newHistogram())
+                            .add((Histogram) histogram);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return histograms;
+    }
+
+    String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Replayed %s against %s at %.2fx speed over %d clients in %d s%n",
+                settings.getCapture(), target, settings.getSpeed(), settings.getClients(), elapsed.toSeconds()));
+        summary.append("Captured latencies were measured in the server; replayed ones count from each request's scheduled start ")
+                .append("in the client, so they include the network and any wait for a free client")
+                .append(String.format("%n%n"));
+        summary.append(String.format("%-45s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "cap p50", "cap p99", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        if (previous != null) {
+            summary.append(String.format(" %9s %9s %8s", "prev p50", "prev p99", "p99 +/-"));
+        }
+        summary.append(String.format("%n"));
+
+        for (Map.Entry<String, Histogram> entry : replayed.getHistograms().entrySet()) {
+            summary.append(row(entry.getKey(), entry.getValue()));
+        }
+        summary.append(LoadTestReport.failures(replayed));
+        if (skipped > 0) {
+            summary.append(String.format("%n%d requests were not replayed because their captured body was truncated", skipped));
+        }
+        summary.append(String.format("%nThe replay logged in %d times; those logins are not timed%n", logins));
+        return summary.toString();
+    }
+
+    private String row(String endpoint, Histogram histogram) {
+        Histogram capturedHistogram = captured.getHistograms().getOrDefault(endpoint, LatencyRecorder.newHistogram());
+        StringBuilder row = new StringBuilder(String.format("%-45s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                endpoint,
+                histogram.getTotalCount(),
+                replayed.getFailures(endpoint).values().stream().mapToLong(Long::longValue).sum(),
+                capturedHistogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                capturedHistogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI));
+        if (previous != null) {
+            Histogram earlier = previous.get(endpoint);
+            if (earlier == null || earlier.getTotalCount() == 0) {
+                row.append(String.format(" %9s %9s %8s", "-", "-", "-"));
+            } else {
+                long before = earlier.getValueAtPercentile(99);
+                row.append(String.format(" %9.2f %9.2f %+7.1f%%",
+                        earlier.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                        before / MICROS_PER_MILLI,
+                        100.0 * (histogram.getValueAtPercentile(99) - before) / Math.max(before, 1)));
+            }
+        }
+        return row.append(String.format("%n")).toString();
+    }
+
+    // tags end at whitespace in the log format; methods have no underscores, so the first one marks the space
+    private static String tagOf(String endpoint) {
+        return endpoint.replace(' ', '_');
+    }
+
+    private static void createParent(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pokemonreview.loadtest;
+
+import com.pokemonreview.api.capture.TrafficCaptureFilter;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of {@link TrafficReplay}, given as {@code name=value} arguments like {@link LoadTestSettings}.
+ */
+@Getter
+public class ReplaySettings {
+
+    /** Capture file, or directory of capture files ({@code app.capture.directory} of the captured instance). */
+    private Path capture;
+    /** Base URL of a running instance; without one the application is started in-process on H2. */
+    private String target;
+    /** 1 replays at the captured pace, 2 twice as fast, 0.5 at half speed. */
+    private double speed = 1;
+    /** Requests in flight at most; later ones wait and their latency shows it. */
+    private int clients = 64;
+    /** Account the replay logs in with for requests that were authenticated; registered if it does not exist. */
+    private String username;
+    /** Captured logins carry this password too, so accounts created for the replay can log in as captured. */
+    private String password = TrafficCaptureFilter.PASSWORD_PLACEHOLDER;
+    private Duration tokenRefresh = Duration.ofSeconds(50);
+    /** Longest request expected in the capture; records written up to this much out of order are replayed in order. */
+    private Duration reorderWindow = Duration.ofSeconds(10);
+    private Path report = Path.of("target/loadtest/replay-report.txt");
+    /** Replayed latency histograms, for comparison with a later run. */
+    private Path histograms = Path.of("target/loadtest/replay.hlog");
+    /** Histograms of an earlier run to compare with. */
+    private Path compare;
+
+    public static ReplaySettings fromArgs(String... args) {
+        ReplaySettings settings = new ReplaySettings();
+        LoadTestSettings.parse(args, (name, value) -> {
+            switch (name) {
+                case "capture": settings.capture = Path.of(value); break;
+                case "target": settings.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value; break;
+                case "speed": settings.speed = Double.parseDouble(value); break;
+                case "clients": settings.clients = Integer.parseInt(value); break;
+                case "username": settings.username = value; break;
+                case "password": settings.password = value; break;
+                case "token-refresh": settings.tokenRefresh = Duration.ofSeconds(Long.parseLong(value)); break;
+                case "reorder-window": settings.reorderWindow = Duration.ofSeconds(Long.parseLong(value)); break;
+                case "report": settings.report = Path.of(value); break;
+                case "histograms": settings.histograms = Path.of(value); break;
+                case "compare": settings.compare = Path.of(value); break;
+                default: throw new IllegalArgumentException("Unknown setting " + name);
+            }
+        });
+        if (settings.capture == null) {
+            throw new IllegalArgumentException("capture=<file or directory> is required");
+        }
+        if (settings.speed <= 0 || settings.clients <= 0) {
+            throw new IllegalArgumentException("speed and clients must be positive");
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,222 @@
+package com.pokemonreview.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.capture.CaptureLogReader;
+import com.pokemonreview.api.capture.CapturedRequest;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Re-issues traffic captured with {@code app.capture.enabled} against an instance, at the captured pace scaled by the
+ * {@code speed} setting, and writes a report comparing the replayed latencies with the captured ones and, given a
+ * {@code compare} setting, with the histograms of an earlier replay. Without a {@code target} setting the application
+ * is started in this JVM like {@link LoadTest} does.
+ * <p>
+ * Ids in paths and bodies are sent as captured, so the target should hold the data the captured instance held, e.g. a
+ * restored copy of its database. Authenticated requests carry the token of the replay's own account; captured logins
+ * and registrations are replayed with the password {@code replay}, so they fail unless such accounts exist.
+ * <p>
+ * Run with: {@code mvn -Ploadtest compile exec:java -Dloadtest.main=com.pokemonreview.loadtest.TrafficReplay
+ * -Dexec.args="capture=data/capture speed=2 compare=target/loadtest/baseline.hlog"}
+ */
+public class TrafficReplay {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficReplay.class);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final ReplaySettings settings;
+    private final String target;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String username;
+    private final List<LatencyRecorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<LatencyRecorder> recorder = ThreadLocal.withInitial(() -> {
+        LatencyRecorder threadRecorder = new LatencyRecorder();
+        recorders.add(threadRecorder);
+        return threadRecorder;
+    });
+    private final LatencyRecorder captured = new LatencyRecorder();
+    private volatile String token;
+    private long loggedInAt;
+    private long logins;
+    private long skipped;
+
+    TrafficReplay(ReplaySettings settings, String target) {
+        this.settings = settings;
+        this.target = target;
+        this.username = settings.getUsername() != null ? settings.getUsername() : "replay-" + System.currentTimeMillis();
+        // the pool threads share keep-alive connections, at most one request each at a time
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ReplaySettings settings = ReplaySettings.fromArgs(args);
+        ReplayReport report = run(settings);
+        System.out.print(report.summary());
+        log.info("Report written to {}, histograms to {}", settings.getReport().toAbsolutePath(), settings.getHistograms().toAbsolutePath());
+    }
+
+    static ReplayReport run(ReplaySettings settings) throws Exception {
+        ConfigurableApplicationContext application = null;
+        String target = settings.getTarget();
+        if (target == null) {
+            application = LoadTest.startApplication();
+            target = LoadTest.urlOf(application);
+        }
+        try {
+            ReplayReport report = new TrafficReplay(settings, target).replay();
+            report.write(settings.getReport());
+            report.writeHistograms(settings.getHistograms());
+            return report;
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    /** Groups requests by method and path, with numeric path segments standing for any id. */
+    static String endpointOf(CapturedRequest request) {
+        return request.getMethod() + " " + ID_SEGMENT.matcher(request.getPath()).replaceAll("/{id}");
+    }
+
+    ReplayReport replay() throws IOException, InterruptedException {
+        Map<String, Histogram> previous = settings.getCompare() == null ? null : ReplayReport.readHistograms(settings.getCompare());
+        ExecutorService pool = Executors.newFixedThreadPool(settings.getClients());
+        long window = TimeUnit.SECONDS.toMicros(settings.getReorderWindow().toSeconds());
+        long firstStart = Long.MIN_VALUE;
+        long replayStart = 0;
+
+        // records are written as requests complete; holding back those that started within the window of the latest
+        // completion puts them back in start order, as long as no request took longer than the window
+        PriorityQueue<CapturedRequest> pending = new PriorityQueue<>(Comparator.comparingLong(CapturedRequest::getStartedAt));
+        long latestEnd = Long.MIN_VALUE;
+        try (CaptureLogReader reader = new CaptureLogReader(settings.getCapture())) {
+            CapturedRequest next;
+            do {
+                next = reader.next();
+                if (next != null) {
+                    pending.add(next);
+                    latestEnd = Math.max(latestEnd, next.getStartedAt() + next.getDuration());
+                }
+                while (!pending.isEmpty() && (next == null || pending.peek().getStartedAt() <= latestEnd - window)) {
+                    CapturedRequest request = pending.poll();
+                    if (firstStart == Long.MIN_VALUE) {
+                        firstStart = request.getStartedAt();
+                        replayStart = System.nanoTime();
+                    }
+                    long scheduled = replayStart + (long) ((request.getStartedAt() - firstStart) * 1000 / settings.getSpeed());
+                    dispatch(pool, request, scheduled);
+                }
+            } while (next != null);
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        }
+        Duration elapsed = Duration.ofNanos(firstStart == Long.MIN_VALUE ? 0 : System.nanoTime() - replayStart);
+
+        LatencyRecorder replayed = new LatencyRecorder();
+        recorders.forEach(replayed::add);
+        return new ReplayReport(settings, target, elapsed, replayed, captured, previous, skipped, logins);
+    }
+
+    private void dispatch(ExecutorService pool, CapturedRequest request, long scheduled) throws IOException, InterruptedException {
+        if (request.isTruncated()) {
+            // the body is incomplete, so the request would not be the one that was captured
+            skipped++;
+            return;
+        }
+        String endpoint = endpointOf(request);
+        captured.record(endpoint, TimeUnit.MICROSECONDS.toNanos(request.getDuration()), request.getStatus());
+        // logging in is not timed, but delays the dispatch and so the requests scheduled behind it
+        if (request.isAuthenticated() && needsLogin()) {
+            login();
+        }
+        long delay;
+        while ((delay = scheduled - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+        String authorization = request.isAuthenticated() ? "Bearer " + token : null;
+        pool.execute(() -> send(endpoint, request, authorization, scheduled));
+    }
+
+    private void send(String endpoint, CapturedRequest request, String authorization, long scheduled) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + request.getPath()
+                + (request.getQuery() == null ? "" : "?" + request.getQuery()))).timeout(TIMEOUT);
+        if (request.getBody().length > 0) {
+            builder.header("Content-Type", "application/json")
+                    .method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        } else {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+
+        int status;
+        try {
+            status = client.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            status = LatencyRecorder.NO_RESPONSE;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.get().record(endpoint, System.nanoTime() - scheduled, status);
+    }
+
+    private boolean needsLogin() {
+        return token == null || System.nanoTime() - loggedInAt > settings.getTokenRefresh().toNanos();
+    }
+
+    private void login() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/auth/login");
+        if (response.statusCode() != 200 && token == null) {
+            HttpResponse<String> registered = post("/api/auth/register");
+            if (registered.statusCode() != 200) {
+                throw new IllegalStateException("Could not register " + username + ": " + registered.statusCode() + " " + registered.body());
+            }
+            response = post("/api/auth/login");
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not log in as " + username + ": " + response.statusCode() + " " + response.body());
+        }
+        token = objectMapper.readTree(response.body()).get("accessToken").asText();
+        loggedInAt = System.nanoTime();
+        logins++;
+    }
+
+    private HttpResponse<String> post(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                        Map.of("username", username, "password", settings.getPassword()))))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
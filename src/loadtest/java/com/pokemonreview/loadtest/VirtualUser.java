@@ -0,0 +1,137 @@
+package com.pokemonreview.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One API client with its own account, token and HTTP connection.
+ */
+class VirtualUser {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper;
+    private final String target;
+    private final String username;
+    private final String password = "loadtest";
+    private final HttpClient client;
+    private final LoadTestSettings settings;
+    private final List<Integer> pokemonIds;
+    private String token;
+    private long loggedInAt;
+    private int accounts;
+
+    VirtualUser(ObjectMapper objectMapper, LoadTestSettings settings, String target, String username, List<Integer> pokemonIds) {
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.target = target;
+        this.username = username;
+        this.pokemonIds = pokemonIds;
+        // HTTP/1.1 keeps one plain keep-alive connection per client, like most API clients
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    void register() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/auth/register", credentials());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not register " + username + ": " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    int login() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/auth/login", credentials());
+        if (response.statusCode() == 200) {
+            token = objectMapper.readTree(response.body()).get("accessToken").asText();
+            loggedInAt = System.nanoTime();
+        }
+        return response.statusCode();
+    }
+
+    boolean needsLogin() {
+        return token == null || System.nanoTime() - loggedInAt > settings.getTokenRefresh().toNanos();
+    }
+
+    /**
+     * Sends one request of the given kind and returns its status code.
+     */
+    int send(Operation operation, Random random) throws IOException, InterruptedException {
+        switch (operation) {
+            case REGISTER:
+                // a new account each time; the user keeps logging in with its own
+                return post("/api/auth/register", Map.of("username", username + "-" + ++accounts, "password", password)).statusCode();
+            case LOGIN:
+                return login();
+            case BROWSE_POKEMON:
+                int pages = Math.max(1, (pokemonIds.size() + settings.getPageSize() - 1) / settings.getPageSize());
+                return get("/api/pokemon?pageNo=" + random.nextInt(pages) + "&pageSize=" + settings.getPageSize());
+            case READ_REVIEWS:
+                return get("/api/pokemon/" + randomPokemon(random) + "/reviews");
+            case CREATE_REVIEW:
+                return post("/api/pokemon/" + randomPokemon(random) + "/reviews", review(random)).statusCode();
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    /** Creates a pokemon and returns its id. */
+    int createPokemon(int number) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/pokemon/create",
+                Map.of("name", "loadtest-" + number, "type", number % 2 == 0 ? "electric" : "grass"));
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Could not create pokemon: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("id").asInt();
+    }
+
+    void createReview(int pokemonId, Random random) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/pokemon/" + pokemonId + "/reviews", review(random));
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Could not create review: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private int randomPokemon(Random random) {
+        return pokemonIds.get(random.nextInt(pokemonIds.size()));
+    }
+
+    private Map<String, Object> review(Random random) {
+        return Map.of("title", "load test review", "content", "written by " + username, "stars", 1 + random.nextInt(5));
+    }
+
+    private Map<String, String> credentials() {
+        return Map.of("username", username, "password", password);
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
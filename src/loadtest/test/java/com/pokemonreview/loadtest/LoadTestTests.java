@@ -0,0 +1,48 @@
+package com.pokemonreview.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadTestTests {
+
+    @Test
+    public void fromArgs_overridesDefaults() {
+        LoadTestSettings settings = LoadTestSettings.fromArgs("rate=25.5", "--clients=4", "duration=3", "mix=browse=1,create=3");
+
+        assertThat(settings.getRate()).isEqualTo(25.5);
+        assertThat(settings.getClients()).isEqualTo(4);
+        assertThat(settings.getDuration()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(settings.getWarmup()).isEqualTo(Duration.ofSeconds(10));
+        assertThat(settings.getMix()).containsOnlyKeys(Operation.BROWSE_POKEMON, Operation.CREATE_REVIEW);
+    }
+
+    @Test
+    public void fromArgs_unknownOperation_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> LoadTestSettings.fromArgs("mix=browse=1,delete=1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void run_embeddedApplication_recordsEveryOperationWithoutFailures(@TempDir Path directory) throws Exception {
+        Path report = directory.resolve("report.txt");
+        LoadTestSettings settings = LoadTestSettings.fromArgs("rate=20", "clients=2", "warmup=1", "duration=3",
+                "pokemon=3", "reviews-per-pokemon=1", "mix=register=1,login=1,browse=1,reviews=1,create=1", "report=" + report);
+
+        LoadTestReport result = LoadTest.run(settings);
+
+        for (Operation operation : Operation.values()) {
+            assertThat(result.getRecorder().getHistograms()).containsKey(operation.getEndpoint());
+            assertThat(result.getRecorder().getFailures(operation.getEndpoint())).as(operation.getEndpoint()).isEmpty();
+        }
+        assertThat(Files.readString(report))
+                .contains("GET /api/pokemon/{pokemonId}/reviews")
+                .contains("Latency distribution of POST /api/pokemon/{pokemonId}/reviews");
+    }
+}
@@ -0,0 +1,79 @@
+package com.pokemonreview.loadtest;
+
+import com.pokemonreview.api.capture.CaptureLogWriter;
+import com.pokemonreview.api.capture.CapturedRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrafficReplayTests {
+
+    @Test
+    public void fromArgs_withoutCapture_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> ReplaySettings.fromArgs("speed=2"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void run_capturedTraffic_replaysAndComparesWithPreviousRun(@TempDir Path directory) throws Exception {
+        long start = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        CaptureLogWriter writer = new CaptureLogWriter(directory.resolve("capture"), 1024 * 1024, 10);
+        // written in completion order, so the create that started first comes second
+        writer.write(request(start + 20_000, "GET", "/api/pokemon", "pageNo=0&pageSize=10", ""));
+        writer.write(request(start, "POST", "/api/pokemon/create", null, "{\"name\":\"replayed\",\"type\":\"fire\"}"));
+        writer.write(request(start + 40_000, "GET", "/api/pokemon/999999", null, ""));
+        CapturedRequest truncated = request(start + 60_000, "POST", "/api/pokemon/create", null, "{\"name\":");
+        truncated.setTruncated(true);
+        writer.write(truncated);
+        writer.close();
+
+        ConfigurableApplicationContext application = LoadTest.startApplication();
+        try {
+            String target = LoadTest.urlOf(application);
+            ReplayReport first = TrafficReplay.run(ReplaySettings.fromArgs("capture=" + directory.resolve("capture"), "target=" + target,
+                    "speed=4", "clients=2", "report=" + directory.resolve("first.txt"), "histograms=" + directory.resolve("first.hlog")));
+
+            assertThat(first.getReplayed().getHistograms())
+                    .containsOnlyKeys("GET /api/pokemon", "POST /api/pokemon/create", "GET /api/pokemon/{id}");
+            assertThat(first.getReplayed().getFailures("GET /api/pokemon")).isEmpty();
+            assertThat(first.getReplayed().getFailures("POST /api/pokemon/create")).isEmpty();
+            assertThat(first.getReplayed().getFailures("GET /api/pokemon/{id}")).isEqualTo(Map.of(404, 1L));
+            assertThat(first.getSkipped()).isEqualTo(1);
+            assertThat(ReplayReport.readHistograms(directory.resolve("first.hlog")))
+                    .containsOnlyKeys(first.getReplayed().getHistograms().keySet());
+
+            ReplayReport second = TrafficReplay.run(ReplaySettings.fromArgs("capture=" + directory.resolve("capture"), "target=" + target,
+                    "speed=4", "report=" + directory.resolve("second.txt"), "histograms=" + directory.resolve("second.hlog"),
+                    "compare=" + directory.resolve("first.hlog")));
+
+            assertThat(second.getReplayed().getHistograms().get("POST /api/pokemon/create").getTotalCount()).isEqualTo(1);
+            assertThat(Files.readString(directory.resolve("second.txt")))
+                    .contains("prev p99")
+                    .contains("Replayed latency distribution of GET /api/pokemon/{id}");
+        } finally {
+            application.close();
+        }
+    }
+
+    private static CapturedRequest request(long startedAt, String method, String path, String query, String body) {
+        return CapturedRequest.builder()
+                .startedAt(startedAt)
+                .duration(5_000)
+                .method(method)
+                .path(path)
+                .query(query)
+                .status(200)
+                .authenticated(true)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
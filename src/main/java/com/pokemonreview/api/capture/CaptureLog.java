@@ -0,0 +1,135 @@
+package com.pokemonreview.api.capture;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binary format of captured traffic. A file starts with {@link #MAGIC} and {@link #VERSION}, followed by records of
+ * <pre>
+ *   start     zigzag varint, microseconds since the previous record's start (since the epoch for the first)
+ *   duration  varint, microseconds
+ *   method    byte, index into {@link #METHODS}
+ *   path      varint length + UTF-8
+ *   query     varint length + UTF-8, empty when absent
+ *   status    varint
+ *   flags     byte, {@link #AUTHENTICATED} | {@link #TRUNCATED}
+ *   body      varint length + bytes
+ * </pre>
+ * Records are written as requests complete, so their start times are only roughly ascending.
+ */
+public final class CaptureLog {
+
+    public static final int MAGIC = 0x504B5243;
+    public static final byte VERSION = 1;
+    public static final String FILE_PREFIX = "traffic-";
+    public static final String FILE_SUFFIX = ".bin";
+
+    static final List<String> METHODS = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+    static final int AUTHENTICATED = 1;
+    static final int TRUNCATED = 2;
+
+    private CaptureLog() {
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    static void readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a traffic capture file of version " + VERSION);
+        }
+    }
+
+    /** Returns the number of bytes written. */
+    static int write(DataOutputStream out, CapturedRequest request, long previousStart) throws IOException {
+        int size = out.size();
+        writeVarLong(out, zigzag(request.getStartedAt() - previousStart));
+        writeVarLong(out, request.getDuration());
+        int method = METHODS.indexOf(request.getMethod());
+        if (method < 0) {
+            throw new IllegalArgumentException("Cannot capture " + request.getMethod() + " requests");
+        }
+        out.writeByte(method);
+        writeBytes(out, request.getPath().getBytes(StandardCharsets.UTF_8));
+        writeBytes(out, request.getQuery() == null ? new byte[0] : request.getQuery().getBytes(StandardCharsets.UTF_8));
+        writeVarLong(out, request.getStatus());
+        out.writeByte((request.isAuthenticated() ? AUTHENTICATED : 0) | (request.isTruncated() ? TRUNCATED : 0));
+        writeBytes(out, request.getBody() == null ? new byte[0] : request.getBody());
+        return out.size() - size;
+    }
+
+    /** Returns the next record, or null at the end of the file. A record cut short by a crash also ends the file. */
+    static CapturedRequest read(DataInputStream in, long previousStart) throws IOException {
+        try {
+            long startedAt = previousStart + unzigzag(readVarLong(in));
+            long duration = readVarLong(in);
+            String method = METHODS.get(in.readUnsignedByte());
+            String path = new String(readBytes(in), StandardCharsets.UTF_8);
+            String query = new String(readBytes(in), StandardCharsets.UTF_8);
+            int status = (int) readVarLong(in);
+            int flags = in.readUnsignedByte();
+            byte[] body = readBytes(in);
+            return CapturedRequest.builder()
+                    .startedAt(startedAt)
+                    .duration(duration)
+                    .method(method)
+                    .path(path)
+                    .query(query.isEmpty() ? null : query)
+                    .status(status)
+                    .authenticated((flags & AUTHENTICATED) != 0)
+                    .truncated((flags & TRUNCATED) != 0)
+                    .body(body)
+                    .build();
+        } catch (EOFException ex) {
+            return null;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
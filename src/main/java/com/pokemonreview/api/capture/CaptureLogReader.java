@@ -0,0 +1,65 @@
+package com.pokemonreview.api.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads captured requests back from one capture file, or from all capture files of a directory oldest first.
+ */
+public class CaptureLogReader implements Closeable {
+
+    private final Iterator<Path> files;
+    private DataInputStream in;
+    private long previousStart;
+
+    public CaptureLogReader(Path fileOrDirectory) throws IOException {
+        this.files = (Files.isDirectory(fileOrDirectory) ? files(fileOrDirectory) : List.of(fileOrDirectory)).iterator();
+    }
+
+    /**
+     * Returns the next captured request, or null once all files are read.
+     */
+    public CapturedRequest next() throws IOException {
+        while (true) {
+            if (in == null) {
+                if (!files.hasNext()) {
+                    return null;
+                }
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(files.next()), 64 * 1024));
+                CaptureLog.readHeader(in);
+                previousStart = 0;
+            }
+            CapturedRequest request = CaptureLog.read(in, previousStart);
+            if (request != null) {
+                previousStart = request.getStartedAt();
+                return request;
+            }
+            in.close();
+            in = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(CaptureLog.FILE_PREFIX) && name.endsWith(CaptureLog.FILE_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+}
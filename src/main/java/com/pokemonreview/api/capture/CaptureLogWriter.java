@@ -0,0 +1,68 @@
+package com.pokemonreview.api.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Appends captured requests to files in a directory, starting a new file once the current one is full and deleting
+ * the oldest files beyond the configured count. File names sort in the order the files were started. Public so
+ * capture files can be written outside the application too, e.g. by replay tests.
+ */
+public class CaptureLogWriter implements Closeable {
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private DataOutputStream out;
+    private long fileSize;
+    private long previousStart;
+    private int fileSequence;
+
+    public CaptureLogWriter(Path directory, long maxFileSize, int maxFiles) throws IOException {
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(1, maxFiles);
+        Files.createDirectories(directory);
+    }
+
+    public synchronized void write(CapturedRequest request) throws IOException {
+        if (out == null || fileSize >= maxFileSize) {
+            rotate();
+        }
+        fileSize += CaptureLog.write(out, request, previousStart);
+        previousStart = request.getStartedAt();
+    }
+
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        String name = String.format("%s%013d-%06d%s", CaptureLog.FILE_PREFIX, System.currentTimeMillis(), fileSequence++, CaptureLog.FILE_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(name)), 64 * 1024));
+        CaptureLog.writeHeader(out);
+        fileSize = out.size();
+        previousStart = 0;
+
+        List<Path> files = CaptureLogReader.files(directory);
+        for (Path old : files.subList(0, Math.max(0, files.size() - maxFiles))) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
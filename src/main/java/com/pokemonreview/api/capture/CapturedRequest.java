@@ -0,0 +1,27 @@
+package com.pokemonreview.api.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CapturedRequest {
+    /** Wall clock time the request arrived, in microseconds since the epoch. */
+    private long startedAt;
+    /** Time the application took to answer, in microseconds. */
+    private long duration;
+    private String method;
+    private String path;
+    /** Raw query string, or null. */
+    private String query;
+    private int status;
+    /** Whether the request carried a bearer token; the token itself is not recorded. */
+    private boolean authenticated;
+    /** Whether the body was longer than {@code app.capture.max-body-size} and is incomplete. */
+    private boolean truncated;
+    private byte[] body;
+}
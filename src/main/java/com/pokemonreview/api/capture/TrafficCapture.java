@@ -0,0 +1,90 @@
+package com.pokemonreview.api.capture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands captured requests to a single writer thread through a bounded queue, so request threads never wait for the
+ * disk. When the writer falls behind, requests are dropped from the capture and counted.
+ */
+public class TrafficCapture {
+
+    private static final Logger log = LoggerFactory.getLogger(TrafficCapture.class);
+
+    private final CaptureLogWriter writer;
+    private final BlockingQueue<CapturedRequest> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private Thread thread;
+    private volatile boolean running;
+
+    public TrafficCapture(TrafficCaptureProperties properties) throws IOException {
+        this.writer = new CaptureLogWriter(properties.getDirectory(), properties.getMaxFileSize().toBytes(), properties.getMaxFiles());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueSize());
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::writeContinuously, "traffic-capture");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        writer.close();
+        if (dropped.get() > 0) {
+            log.warn("Traffic capture dropped {} requests because the writer fell behind", dropped.get());
+        }
+    }
+
+    void offer(CapturedRequest request) {
+        if (!queue.offer(request)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void writeContinuously() {
+        List<CapturedRequest> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                CapturedRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                for (CapturedRequest request : batch) {
+                    writer.write(request);
+                }
+                // flushed whenever the queue runs dry, so an idle capture is complete on disk
+                writer.flush();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException ex) {
+                dropped.addAndGet(batch.size());
+                log.error("Could not write {} captured requests", batch.size(), ex);
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pokemonreview.api.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+
+/**
+ * Opt-in capture of pokemon, review and auth traffic for replay against another instance, enabled with
+ * {@code app.capture.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.capture", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(TrafficCaptureProperties.class)
+public class TrafficCaptureConfig {
+
+    @Bean
+    public TrafficCapture trafficCapture(TrafficCaptureProperties properties) throws IOException {
+        return new TrafficCapture(properties);
+    }
+
+    // ahead of the security filters, so rejected requests are captured and timings include authentication
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(TrafficCapture trafficCapture, ObjectMapper objectMapper,
+                                                                              TrafficCaptureProperties properties) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>(
+                new TrafficCaptureFilter(trafficCapture, objectMapper, (int) properties.getMaxBodySize().toBytes()));
+        registration.addUrlPatterns("/api/pokemon/*", "/api/auth/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,90 @@
+package com.pokemonreview.api.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the pokemon, review and auth requests for {@link TrafficCapture}. Passwords in auth request bodies are
+ * replaced by {@value #PASSWORD_PLACEHOLDER} and bearer tokens are not recorded at all, so a capture holds no
+ * credentials; the replay logs in with an account of its own.
+ */
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    public static final String PASSWORD_PLACEHOLDER = "replay";
+
+    private TrafficCapture trafficCapture;
+    private ObjectMapper objectMapper;
+    private int maxBodySize;
+
+    public TrafficCaptureFilter(TrafficCapture trafficCapture, ObjectMapper objectMapper, int maxBodySize) {
+        this.trafficCapture = trafficCapture;
+        this.objectMapper = objectMapper;
+        this.maxBodySize = maxBodySize;
+    }
+
+    // the live review feed stays open for minutes and has no body worth replaying
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startedAt = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        long start = System.nanoTime();
+        // one byte more than the limit tells a body of exactly the limit from a longer one
+        ContentCachingRequestWrapper wrapper = new ContentCachingRequestWrapper(request, maxBodySize + 1);
+        try {
+            filterChain.doFilter(wrapper, response);
+        } finally {
+            byte[] body = wrapper.getContentAsByteArray();
+            boolean truncated = body.length > maxBodySize;
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            trafficCapture.offer(CapturedRequest.builder()
+                    .startedAt(startedAt)
+                    .duration(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start))
+                    .method(request.getMethod())
+                    .path(request.getRequestURI())
+                    .query(request.getQueryString())
+                    .status(response.getStatus())
+                    .authenticated(authorization != null && authorization.startsWith("Bearer "))
+                    .truncated(truncated)
+                    .body(recordedBody(request, body, truncated))
+                    .build());
+        }
+    }
+
+    private byte[] recordedBody(HttpServletRequest request, byte[] body, boolean truncated) {
+        if (!request.getRequestURI().startsWith("/api/auth/")) {
+            return truncated ? Arrays.copyOf(body, maxBodySize) : body;
+        }
+        // a cut-off auth body cannot be parsed to find the password in it, so none of it is kept
+        if (truncated || body.length == 0) {
+            return new byte[0];
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json instanceof ObjectNode && json.has("password")) {
+                ((ObjectNode) json).put("password", PASSWORD_PLACEHOLDER);
+                return objectMapper.writeValueAsBytes(json);
+            }
+            return body;
+        } catch (IOException ex) {
+            // not JSON, so nothing the replay could log in with either
+            return new byte[0];
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.pokemonreview.api.capture;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "app.capture")
+public class TrafficCaptureProperties {
+    private boolean enabled;
+    private Path directory = Path.of("data/capture");
+    /** A new file is started once the current one reaches this size. */
+    private DataSize maxFileSize = DataSize.ofMegabytes(64);
+    /** The oldest files are deleted beyond this many. */
+    private int maxFiles = 10;
+    /** Longer bodies are cut and their requests are marked as not replayable. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(8);
+    /** Requests waiting to be written; further ones are dropped rather than slowing down the request threads. */
+    private int queueSize = 10_000;
+}
@@ -0,0 +1,15 @@
+package com.pokemonreview.api.catalog;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CatalogConfig {
+
+    // loaded before the first request rather than during it, and its refresh is only scheduled once it exists
+    @Bean
+    public static LazyInitializationExcludeFilter pokemonCatalogEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PokemonCatalog.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.pokemonreview.api.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Distinct strings stored back to back as UTF-8 in one byte array, each identified by an int code in insertion
+ * order. An open-addressing table of codes, kept at most half full, finds the code of a string without a map entry or
+ * a String instance per value. Entries are never removed; a catalog rebuild starts a fresh dictionary.
+ * <p>
+ * Not thread-safe.
+ */
+final class NameDictionary {
+
+    private byte[] bytes = new byte[1024];
+    private int used;
+    // offsets[code] is where the code's bytes start, offsets[code + 1] where they end
+    private int[] offsets = new int[65];
+    private int count;
+    // code + 1 per slot, 0 for an empty slot
+    private int[] table = new int[128];
+
+    int encode(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int mask = table.length - 1;
+        int slot = hash(encoded) & mask;
+        while (table[slot] != 0) {
+            int code = table[slot] - 1;
+            if (Arrays.equals(bytes, offsets[code], offsets[code + 1], encoded, 0, encoded.length)) {
+                return code;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(encoded, slot);
+    }
+
+    String decode(int code) {
+        return new String(bytes, offsets[code], offsets[code + 1] - offsets[code], StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return count;
+    }
+
+    long memoryBytes() {
+        return bytes.length + 4L * offsets.length + 4L * table.length;
+    }
+
+    int snapshotSize() {
+        return 8 + 4 * (count + 1) + used;
+    }
+
+    /** Writes the count, the offsets and the bytes; the hash table is rebuilt on reading. */
+    void writeTo(ByteBuffer out) {
+        out.putInt(count).putInt(used);
+        out.asIntBuffer().put(offsets, 0, count + 1);
+        out.position(out.position() + 4 * (count + 1));
+        out.put(bytes, 0, used);
+    }
+
+    static NameDictionary readFrom(ByteBuffer in) {
+        NameDictionary dictionary = new NameDictionary();
+        dictionary.count = in.getInt();
+        dictionary.used = in.getInt();
+        dictionary.offsets = new int[Math.max(dictionary.count + 1, 65)];
+        in.asIntBuffer().get(dictionary.offsets, 0, dictionary.count + 1);
+        in.position(in.position() + 4 * (dictionary.count + 1));
+        dictionary.bytes = new byte[Math.max(dictionary.used, 1024)];
+        in.get(dictionary.bytes, 0, dictionary.used);
+        dictionary.table = new int[Math.max(Integer.highestOneBit(dictionary.count) * 4, 128)];
+        dictionary.rehash(dictionary.table.length);
+        return dictionary;
+    }
+
+    private int add(byte[] encoded, int slot) {
+        if (used + encoded.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length + (bytes.length >> 1), used + encoded.length));
+        }
+        if (count + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1));
+        }
+        System.arraycopy(encoded, 0, bytes, used, encoded.length);
+        used += encoded.length;
+        int code = count++;
+        offsets[count] = used;
+        table[slot] = code + 1;
+        if (count * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return code;
+    }
+
+    private void rehash(int slots) {
+        table = new int[slots];
+        int mask = table.length - 1;
+        for (int code = 0; code < count; code++) {
+            int slot = hash(bytes, offsets[code], offsets[code + 1]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = code + 1;
+        }
+    }
+
+    private static int hash(byte[] value) {
+        return hash(value, 0, value.length);
+    }
+
+    // FNV-1a, with the high bits folded in since the table masks off all but the low ones
+    private static int hash(byte[] value, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ value[i]) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
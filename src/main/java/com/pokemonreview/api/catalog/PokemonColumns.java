@@ -0,0 +1,172 @@
+package com.pokemonreview.api.catalog;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Pokemon as parallel primitive arrays sorted by id: the id, a code into a {@link NameDictionary} of names, the
+ * {@code pokemon_type} code of the type and the version. Rows with ids above the last one, the usual case for
+ * generated ids, are appended; any other insert or a removal shifts the rows behind it.
+ * <p>
+ * Not thread-safe.
+ */
+final class PokemonColumns {
+
+    /** Type code of a pokemon without a type; {@code pokemon_type} codes start at 1. */
+    static final short NO_TYPE = -1;
+    private static final int NO_NAME = -1;
+
+    private int[] ids;
+    private int[] nameCodes;
+    private short[] typeCodes;
+    private int[] versions;
+    private int size;
+    private NameDictionary names = new NameDictionary();
+
+    PokemonColumns(int capacity) {
+        int initial = Math.max(capacity, 16);
+        ids = new int[initial];
+        nameCodes = new int[initial];
+        typeCodes = new short[initial];
+        versions = new int[initial];
+    }
+
+    /**
+     * Inserts or replaces the pokemon, unless the stored row has a newer version.
+     *
+     * @return whether the row was written
+     */
+    boolean upsert(int id, String name, short typeCode, int version) {
+        int row = indexOf(id);
+        if (row >= 0) {
+            if (versions[row] > version) {
+                return false;
+            }
+        } else {
+            row = -row - 1;
+            insertAt(row);
+            ids[row] = id;
+        }
+        nameCodes[row] = name == null ? NO_NAME : names.encode(name);
+        typeCodes[row] = typeCode;
+        versions[row] = version;
+        return true;
+    }
+
+    boolean remove(int id) {
+        int row = indexOf(id);
+        if (row < 0) {
+            return false;
+        }
+        int behind = size - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, behind);
+        System.arraycopy(nameCodes, row + 1, nameCodes, row, behind);
+        System.arraycopy(typeCodes, row + 1, typeCodes, row, behind);
+        System.arraycopy(versions, row + 1, versions, row, behind);
+        size--;
+        return true;
+    }
+
+    /** The row of the id, or {@code -(insertion point) - 1} like {@link Arrays#binarySearch}. */
+    int indexOf(int id) {
+        if (size > 0 && id > ids[size - 1]) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int id(int row) {
+        return ids[row];
+    }
+
+    String name(int row) {
+        return nameCodes[row] == NO_NAME ? null : names.decode(nameCodes[row]);
+    }
+
+    short typeCode(int row) {
+        return typeCodes[row];
+    }
+
+    int version(int row) {
+        return versions[row];
+    }
+
+    /** Bytes held by the arrays, spare capacity included; object headers are left out. */
+    long memoryBytes() {
+        return (4L + 4 + 2 + 4) * ids.length + names.memoryBytes();
+    }
+
+    int distinctNames() {
+        return names.size();
+    }
+
+    int maxId() {
+        return size == 0 ? 0 : ids[size - 1];
+    }
+
+    long versionSum() {
+        long sum = 0;
+        for (int row = 0; row < size; row++) {
+            sum += versions[row];
+        }
+        return sum;
+    }
+
+    /** The rows and the name dictionary with bulk copies, ints first so they stay aligned. */
+    ByteBuffer toSnapshot() {
+        ByteBuffer out = ByteBuffer.allocate(4 + 14 * size + names.snapshotSize());
+        out.putInt(size);
+        putInts(out, ids);
+        putInts(out, nameCodes);
+        putInts(out, versions);
+        out.asShortBuffer().put(typeCodes, 0, size);
+        out.position(out.position() + 2 * size);
+        names.writeTo(out);
+        return out.flip();
+    }
+
+    static PokemonColumns fromSnapshot(ByteBuffer in) {
+        int size = in.getInt();
+        PokemonColumns columns = new PokemonColumns(size);
+        getInts(in, columns.ids, size);
+        getInts(in, columns.nameCodes, size);
+        getInts(in, columns.versions, size);
+        in.asShortBuffer().get(columns.typeCodes, 0, size);
+        in.position(in.position() + 2 * size);
+        columns.names = NameDictionary.readFrom(in);
+        columns.size = size;
+        return columns;
+    }
+
+    private void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer().put(values, 0, size);
+        out.position(out.position() + 4 * size);
+    }
+
+    private static void getInts(ByteBuffer in, int[] values, int size) {
+        in.asIntBuffer().get(values, 0, size);
+        in.position(in.position() + 4 * size);
+    }
+
+    private void insertAt(int row) {
+        if (size == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        int behind = size - row;
+        if (behind > 0) {
+            System.arraycopy(ids, row, ids, row + 1, behind);
+            System.arraycopy(nameCodes, row, nameCodes, row + 1, behind);
+            System.arraycopy(typeCodes, row, typeCodes, row + 1, behind);
+            System.arraycopy(versions, row, versions, row + 1, behind);
+        }
+        size++;
+    }
+}
@@ -0,0 +1,65 @@
+package com.pokemonreview.api.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maps pokemon ids to shard names. Every shard owns {@code virtualNodes * weight} points on a hash ring and a key
+ * belongs to the first point at or after its own hash, so adding or removing a shard only moves the keys of that
+ * shard's points instead of reshuffling all of them.
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Integer, String> ring = new TreeMap<>();
+    private final Set<String> shards;
+
+    public ConsistentHashRing(Map<String, Integer> weights, int virtualNodes) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        for (Map.Entry<String, Integer> shard : weights.entrySet()) {
+            for (int i = 0; i < virtualNodes * shard.getValue(); i++) {
+                ring.put(mix((shard.getKey() + "#" + i).hashCode()), shard.getKey());
+            }
+        }
+        this.shards = Collections.unmodifiableSet(new LinkedHashSet<>(weights.keySet()));
+    }
+
+    public Set<String> getShards() {
+        return shards;
+    }
+
+    public String shardFor(int pokemonId) {
+        Map.Entry<Integer, String> point = ring.ceilingEntry(mix(pokemonId));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Groups the ids by owning shard, keeping their relative order within each group.
+     */
+    public Map<String, List<Integer>> partition(Collection<Integer> pokemonIds) {
+        Map<String, List<Integer>> partitions = new LinkedHashMap<>();
+        for (Integer pokemonId : pokemonIds) {
+            partitions.computeIfAbsent(shardFor(pokemonId), shard -> new ArrayList<>()).add(pokemonId);
+        }
+        return partitions;
+    }
+
+    // murmur3 finalizer, spreads sequential ids and similar shard names evenly over the ring
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,6 @@
+package com.pokemonreview.api.config;
+
+public enum DataSourceType {
+    PRIMARY,
+    REPLICA
+}
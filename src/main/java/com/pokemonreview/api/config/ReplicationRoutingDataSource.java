@@ -0,0 +1,74 @@
+package com.pokemonreview.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary.
+ * For {@code maxLag} after a read-write transaction commits, reads stay on the primary as well so that callers
+ * see their own writes even when the replica is behind.
+ * <p>
+ * The window is global, not per session: any committed write, whoever made it, sends every reader of this
+ * instance to the primary until it ends. Writes that roll back do not open it.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final Duration maxLag;
+    private final Clock clock;
+    private final Object commitStamp = new Object();
+    private volatile long lastWriteAt = Long.MIN_VALUE;
+
+    public ReplicationRoutingDataSource(Duration maxLag) {
+        this(maxLag, Clock.systemUTC());
+    }
+
+    ReplicationRoutingDataSource(Duration maxLag, Clock clock) {
+        this.maxLag = maxLag;
+        this.clock = clock;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceType.PRIMARY;
+        }
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            stampOnCommit();
+            return DataSourceType.PRIMARY;
+        }
+
+        long written = lastWriteAt;
+        if (written != Long.MIN_VALUE && clock.millis() - written < maxLag.toMillis()) {
+            return DataSourceType.PRIMARY;
+        }
+        return DataSourceType.REPLICA;
+    }
+
+    // the window starts when the write becomes visible, so a long transaction cannot outlast it before committing
+    private void stampOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWriteAt = clock.millis();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(commitStamp)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(commitStamp, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteAt = clock.millis();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(commitStamp);
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.pokemonreview.api.config;
+
+/**
+ * The shard the current thread's next physical connection should come from, {@code null} for the primary database.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    static void set(String shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
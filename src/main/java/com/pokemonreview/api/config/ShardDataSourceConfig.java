@@ -0,0 +1,73 @@
+package com.pokemonreview.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Spreads the review table over the databases in {@code app.datasource.shards.nodes}, keyed by pokemon id. Pokemon,
+ * users and roles stay on the primary database. Not combined with replica routing: enabling both fails on the
+ * duplicate {@code primaryDataSource} bean.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.shards", name = "enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ConsistentHashRing reviewShardRing(ShardDataSourceProperties properties) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        properties.getNodes().forEach((name, node) -> weights.put(name, node.getWeight()));
+        return new ConsistentHashRing(weights, properties.getVirtualNodes());
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource, ShardDataSourceProperties properties,
+                                                         @Value("${spring.flyway.enabled:true}") boolean migrate) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        properties.getNodes().forEach((name, node) -> {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + name);
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername());
+            dataSource.setPassword(node.getPassword());
+            if (node.getDriverClassName() != null) {
+                dataSource.setDriverClassName(node.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+            if (migrate) {
+                Flyway.configure().dataSource(dataSource).locations("classpath:db/shard").load().migrate();
+            }
+            shards.put(name, dataSource);
+        });
+        return new ShardRoutingDataSource(primaryDataSource, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        // the shard is picked per ShardTemplate callback after the transaction has begun, so the physical
+        // connection must be fetched lazily
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pokemonreview.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.shards")
+public class ShardDataSourceProperties {
+    private boolean enabled;
+    private int virtualNodes = 128;
+    private Map<String, Node> nodes = new LinkedHashMap<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+        private int weight = 1;
+    }
+}
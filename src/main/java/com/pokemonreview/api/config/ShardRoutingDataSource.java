@@ -0,0 +1,39 @@
+package com.pokemonreview.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard selected by {@link ShardTemplate}, or of the primary database when no shard
+ * is selected. Unknown shard names fail instead of falling back to the primary.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(DataSource primary, Map<String, DataSource> shards) {
+        this.shards = shards;
+        setTargetDataSources(Map.copyOf(shards));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof Closeable) {
+                ((Closeable) shard).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.pokemonreview.api.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs review repository calls on the shard that owns the pokemon. When sharding is enabled every callback gets its
+ * own transaction on that shard, suspending the caller's transaction on the primary database; without sharding the
+ * callback simply joins the caller's transaction.
+ */
+@Component
+public class ShardTemplate {
+
+    public static final String PRIMARY = "primary";
+
+    private ConsistentHashRing ring;
+    private TransactionTemplate readTemplate;
+    private TransactionTemplate writeTemplate;
+    private ExecutorService scatterExecutor;
+
+    @Autowired
+    public ShardTemplate(PlatformTransactionManager transactionManager, ObjectProvider<ConsistentHashRing> ring) {
+        this(transactionManager, ring.getIfAvailable());
+    }
+
+    public ShardTemplate(PlatformTransactionManager transactionManager, ConsistentHashRing ring) {
+        this.ring = ring;
+        int propagation = ring == null ? TransactionDefinition.PROPAGATION_REQUIRED : TransactionDefinition.PROPAGATION_REQUIRES_NEW;
+
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(propagation);
+        this.readTemplate.setReadOnly(true);
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(propagation);
+
+        if (ring != null && ring.getShards().size() > 1) {
+            AtomicInteger threads = new AtomicInteger();
+            this.scatterExecutor = Executors.newFixedThreadPool(ring.getShards().size() - 1, task -> {
+                Thread thread = new Thread(task, "review-shard-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public <T> T read(int pokemonId, Supplier<T> callback) {
+        return execute(shardFor(pokemonId), readTemplate, callback);
+    }
+
+    public <T> T write(int pokemonId, Supplier<T> callback) {
+        return execute(shardFor(pokemonId), writeTemplate, callback);
+    }
+
+    /**
+     * Runs the callback in a write transaction on the primary database, also when called from a shard callback.
+     */
+    public <T> T writePrimary(Supplier<T> callback) {
+        return execute(null, writeTemplate, callback);
+    }
+
+    /**
+     * Runs the callback once per database, the primary first and then every shard, each in its own write transaction.
+     * The callback receives {@link #PRIMARY} or the shard name.
+     */
+    public void writeEach(Consumer<String> callback) {
+        execute(null, writeTemplate, () -> {
+            callback.accept(PRIMARY);
+            return null;
+        });
+        if (ring != null) {
+            for (String shard : ring.getShards()) {
+                execute(shard, writeTemplate, () -> {
+                    callback.accept(shard);
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Runs the query once on every database holding reviews, each shard in turn or just the primary database when
+     * sharding is disabled, and concatenates the results.
+     */
+    public <T> List<T> readEach(Supplier<List<T>> query) {
+        if (ring == null) {
+            return execute(null, readTemplate, query);
+        }
+
+        List<T> results = new ArrayList<>();
+        for (String shard : ring.getShards()) {
+            results.addAll(execute(shard, readTemplate, query));
+        }
+        return results;
+    }
+
+    /**
+     * Scatter-gather read: runs the query once per shard with the ids that shard owns, the shards in parallel, and
+     * concatenates the results in shard order.
+     */
+    public <T> List<T> readAll(Collection<Integer> pokemonIds, Function<Collection<Integer>, List<T>> query) {
+        if (ring == null) {
+            return readTemplate.execute(status -> query.apply(pokemonIds));
+        }
+
+        List<Map.Entry<String, List<Integer>>> partitions = new ArrayList<>(ring.partition(pokemonIds).entrySet());
+        List<CompletableFuture<List<T>>> remote = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> partition : partitions.subList(Math.min(1, partitions.size()), partitions.size())) {
+            remote.add(CompletableFuture.supplyAsync(
+                    () -> execute(partition.getKey(), readTemplate, () -> query.apply(partition.getValue())), scatterExecutor));
+        }
+
+        // the calling thread queries the first shard itself instead of idling until the others are done
+        List<T> results = new ArrayList<>();
+        if (!partitions.isEmpty()) {
+            Map.Entry<String, List<Integer>> first = partitions.get(0);
+            results.addAll(execute(first.getKey(), readTemplate, () -> query.apply(first.getValue())));
+        }
+        for (CompletableFuture<List<T>> future : remote) {
+            try {
+                results.addAll(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs the callback once per shard with the ids that shard owns, one shard after the other, each in its own write
+     * transaction, and concatenates the results in shard order.
+     */
+    public <T> List<T> writeAll(Collection<Integer> pokemonIds, Function<Collection<Integer>, List<T>> callback) {
+        if (ring == null) {
+            return writeTemplate.execute(status -> callback.apply(pokemonIds));
+        }
+
+        List<T> results = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> partition : ring.partition(pokemonIds).entrySet()) {
+            results.addAll(execute(partition.getKey(), writeTemplate, () -> callback.apply(partition.getValue())));
+        }
+        return results;
+    }
+
+    /**
+     * Groups the ids by the database that owns them, {@link #PRIMARY} for all of them when sharding is disabled.
+     */
+    public Map<String, List<Integer>> partition(Collection<Integer> pokemonIds) {
+        if (ring == null) {
+            return Map.of(PRIMARY, new ArrayList<>(pokemonIds));
+        }
+        return ring.partition(pokemonIds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+
+    private String shardFor(int pokemonId) {
+        return ring == null ? null : ring.shardFor(pokemonId);
+    }
+
+    private <T> T execute(String shard, TransactionTemplate template, Supplier<T> callback) {
+        String previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return template.execute(status -> callback.get());
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+}
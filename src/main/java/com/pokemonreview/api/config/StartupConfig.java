@@ -0,0 +1,19 @@
+package com.pokemonreview.api.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // with lazy initialization enabled migrations must still run before the first request
+    @Bean
+    @ConditionalOnClass(Flyway.class)
+    public static LazyInitializationExcludeFilter flywayEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class);
+    }
+}
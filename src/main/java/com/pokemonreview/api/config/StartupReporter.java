@@ -0,0 +1,81 @@
+package com.pokemonreview.api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Logs the slowest startup steps recorded by {@link BufferingApplicationStartup} once the application is ready.
+ * With {@code app.startup.exit-on-ready} the application shuts down right after, which is used by the
+ * {@code cds} build profile to record a class data sharing archive from a full startup.
+ */
+@Component
+public class StartupReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReporter.class);
+
+    @Value("${app.startup.report.enabled:false}")
+    private boolean reportEnabled;
+
+    @Value("${app.startup.report.top-steps:20}")
+    private int topSteps;
+
+    @Value("${app.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        ApplicationStartup applicationStartup = context.getApplicationStartup();
+
+        if (applicationStartup instanceof BufferingApplicationStartup) {
+            // drain even when not reporting so the buffered steps are not kept for the lifetime of the application
+            StartupTimeline timeline = ((BufferingApplicationStartup) applicationStartup).drainBufferedTimeline();
+            if (reportEnabled) {
+                report(timeline, event);
+            }
+        }
+
+        if (exitOnReady) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private void report(StartupTimeline timeline, ApplicationReadyEvent event) {
+        List<StartupTimeline.TimelineEvent> slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .collect(Collectors.toList());
+
+        StringBuilder report = new StringBuilder();
+        report.append("Application ready in ").append(event.getTimeTaken().toMillis()).append(" ms, ")
+                .append(timeline.getEvents().size()).append(" startup steps recorded. Slowest steps:");
+        for (StartupTimeline.TimelineEvent timelineEvent : slowest) {
+            report.append(System.lineSeparator())
+                    .append(String.format("%8d ms  %s%s", timelineEvent.getDuration().toMillis(),
+                            timelineEvent.getStartupStep().getName(), tags(timelineEvent.getStartupStep())));
+        }
+        log.info(report.toString());
+    }
+
+    private String tags(StartupStep step) {
+        String tags = StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", "));
+        return tags.isEmpty() ? "" : " [" + tags + "]";
+    }
+}
@@ -3,12 +3,15 @@ package com.pokemonreview.api.controllers;
 import com.pokemonreview.api.dto.AuthResponseDTO;
 import com.pokemonreview.api.dto.LoginDto;
 import com.pokemonreview.api.dto.RegisterDto;
-import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.dto.UsernameAvailabilityDto;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
 import com.pokemonreview.api.models.UserEntity;
-import com.pokemonreview.api.repository.RoleRepository;
+import com.pokemonreview.api.reference.RoleRegistry;
 import com.pokemonreview.api.repository.UserRepository;
 import com.pokemonreview.api.security.JWTGenerator;
+import com.pokemonreview.api.users.UsernameAvailability;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,9 +19,11 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collections;
@@ -29,18 +34,21 @@ public class AuthController {
 
     private AuthenticationManager authenticationManager;
     private UserRepository userRepository;
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
     private PasswordEncoder passwordEncoder;
     private JWTGenerator jwtGenerator;
+    private UsernameAvailability usernameAvailability;
 
     @Autowired
     public AuthController(AuthenticationManager authenticationManager, UserRepository userRepository,
-                          RoleRepository roleRepository, PasswordEncoder passwordEncoder, JWTGenerator jwtGenerator) {
+                          RoleRegistry roleRegistry, PasswordEncoder passwordEncoder, JWTGenerator jwtGenerator,
+                          UsernameAvailability usernameAvailability) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
         this.jwtGenerator = jwtGenerator;
+        this.usernameAvailability = usernameAvailability;
     }
 
     @PostMapping("login")
@@ -56,19 +64,31 @@ public class AuthController {
 
     @PostMapping("register")
     public ResponseEntity<String> register(@RequestBody RegisterDto registerDto) {
-        if (userRepository.existsByUsername(registerDto.getUsername())) {
+        if (usernameAvailability.isTaken(registerDto.getUsername())) {
             return new ResponseEntity<>("Username is taken!", HttpStatus.BAD_REQUEST);
         }
 
         UserEntity user = new UserEntity();
         user.setUsername(registerDto.getUsername());
         user.setPassword(passwordEncoder.encode((registerDto.getPassword())));
+        user.setRoles(Collections.singletonList(roleRegistry.get("USER")));
 
-        Role roles = roleRepository.findByName("USER").get();
-        user.setRoles(Collections.singletonList(roles));
-
-        userRepository.save(user);
+        usernameAvailability.registered(user.getUsername());
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            // registered at the same time, or through another instance whose registrations this filter has not seen
+            return new ResponseEntity<>("Username is taken!", HttpStatus.BAD_REQUEST);
+        }
 
         return new ResponseEntity<>("User registered success!", HttpStatus.OK);
     }
+
+    @GetMapping("username-available")
+    public ResponseEntity<UsernameAvailabilityDto> isUsernameAvailable(@RequestParam String username) {
+        if (username.isBlank()) {
+            throw new InvalidFieldException("username must not be blank");
+        }
+        return ResponseEntity.ok(new UsernameAvailabilityDto(username, !usernameAvailability.isTaken(username)));
+    }
 }
@@ -0,0 +1,37 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Maps entity versions to strong ETags and back for If-Match handling.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static Integer parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Integer.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            throw new VersionMismatchException("If-Match does not match the current version");
+        }
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Integer version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(String.valueOf(version));
+        }
+        return builder.body(body);
+    }
+}
@@ -0,0 +1,38 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.events.ChangeEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/")
+public class EventController {
+
+    private ChangeEventLog changeEventLog;
+
+    @Value("${app.outbox.log.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    @Autowired
+    public EventController(ChangeEventLog changeEventLog) {
+        this.changeEventLog = changeEventLog;
+    }
+
+    /**
+     * Pokemon and review changes from {@code offset} on. Consumers pass the returned {@code nextOffset} on their next
+     * call instead of re-reading the pokemon listing.
+     */
+    @GetMapping("events")
+    public ResponseEntity<ChangeEventResponse> getEvents(
+            @RequestParam(value = "offset", defaultValue = "0") long offset,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return new ResponseEntity<>(changeEventLog.read(offset, Math.min(limit, maxLimit)), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,39 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.LeaderboardEntryDto;
+import com.pokemonreview.api.leaderboard.ReviewLeaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/")
+public class LeaderboardController {
+
+    private ReviewLeaderboard reviewLeaderboard;
+
+    @Value("${app.leaderboard.max-limit:100}")
+    private int maxLimit = 100;
+
+    @Autowired
+    public LeaderboardController(ReviewLeaderboard reviewLeaderboard) {
+        this.reviewLeaderboard = reviewLeaderboard;
+    }
+
+    @GetMapping("leaderboard/top-rated")
+    public ResponseEntity<List<LeaderboardEntryDto>> getTopRated(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return new ResponseEntity<>(reviewLeaderboard.getTopRated(Math.max(0, Math.min(limit, maxLimit))), HttpStatus.OK);
+    }
+
+    @GetMapping("leaderboard/most-reviewed")
+    public ResponseEntity<List<LeaderboardEntryDto>> getMostReviewed(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return new ResponseEntity<>(reviewLeaderboard.getMostReviewed(Math.max(0, Math.min(limit, maxLimit))), HttpStatus.OK);
+    }
+}
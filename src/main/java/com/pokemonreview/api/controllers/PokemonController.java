@@ -1,39 +1,84 @@
 package com.pokemonreview.api.controllers;
 
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.catalog.PokemonCatalog;
+import com.pokemonreview.api.dto.PokemonBatchResponse;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
 import com.pokemonreview.api.models.Pokemon;
 import com.pokemonreview.api.service.PokemonService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/")
 public class PokemonController {
 
     private PokemonService pokemonService;
+    private PokemonCatalog pokemonCatalog;
+    private SparseFields sparseFields;
 
     @Autowired
-    public PokemonController(PokemonService pokemonService) {
+    public PokemonController(PokemonService pokemonService, ObjectProvider<PokemonCatalog> pokemonCatalog,
+                             ObjectMapper objectMapper) {
         this.pokemonService = pokemonService;
+        this.pokemonCatalog = pokemonCatalog.getIfAvailable();
+        this.sparseFields = new SparseFields(objectMapper);
     }
 
     @GetMapping("pokemon")
     public ResponseEntity<PokemonResponse> getAllPokemon(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "include", required = false) Set<String> include,
+            @RequestParam(value = "reviewLimit", defaultValue = "5", required = false) int reviewLimit
     ) {
+        if (include != null && !include.isEmpty()) {
+            if (!include.equals(Set.of("reviews"))) {
+                throw new InvalidFieldException("Only include=reviews is supported");
+            }
+            return new ResponseEntity<>(pokemonService.getAllPokemonWithReviews(pageNo, pageSize, reviewLimit), HttpStatus.OK);
+        }
+        if (pokemonCatalog != null) {
+            return new ResponseEntity<>(pokemonCatalog.getAllPokemon(pageNo, pageSize), HttpStatus.OK);
+        }
         return new ResponseEntity<>(pokemonService.getAllPokemon(pageNo, pageSize), HttpStatus.OK);
     }
 
+    @GetMapping(value = "pokemon", params = "fields")
+    public ResponseEntity<JsonNode> getAllPokemonFields(
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "fields") Set<String> fields,
+            @RequestParam(value = "include", required = false) Set<String> include
+    ) {
+        if (include != null && !include.isEmpty()) {
+            throw new InvalidFieldException("fields cannot be combined with include=reviews");
+        }
+        if (fields.isEmpty()) {
+            throw new InvalidFieldException("fields must name at least one field");
+        }
+        return new ResponseEntity<>(sparseFields.write(pokemonService.getAllPokemon(pageNo, pageSize, fields)), HttpStatus.OK);
+    }
+
+    @GetMapping("pokemon/batch")
+    public ResponseEntity<PokemonBatchResponse> getPokemonBatch(@RequestParam("ids") List<Integer> ids) {
+        return new ResponseEntity<>(pokemonService.getPokemonByIds(ids), HttpStatus.OK);
+    }
+
     @GetMapping("pokemon/{id}")
     public ResponseEntity<PokemonDto> pokemonDetail(@PathVariable int id) {
-        return ResponseEntity.ok(pokemonService.getPokemonById(id));
+        PokemonDto pokemonDto = pokemonCatalog != null ? pokemonCatalog.getPokemonById(id) : pokemonService.getPokemonById(id);
+        return ETags.ok(pokemonDto, pokemonDto.getVersion());
     }
 
     @PostMapping("pokemon/create")
@@ -43,9 +88,23 @@ public class PokemonController {
     }
 
     @PutMapping("pokemon/{id}/update")
-    public ResponseEntity<PokemonDto> updatePokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId) {
+    public ResponseEntity<PokemonDto> updatePokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            pokemonDto.setVersion(ETags.parseIfMatch(ifMatch));
+        }
         PokemonDto response = pokemonService.updatePokemon(pokemonDto, pokemonId);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ETags.ok(response, response.getVersion());
+    }
+
+    @PatchMapping("pokemon/{id}/update")
+    public ResponseEntity<PokemonDto> patchPokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            pokemonDto.setVersion(ETags.parseIfMatch(ifMatch));
+        }
+        PokemonDto response = pokemonService.patchPokemon(pokemonDto, pokemonId);
+        return ETags.ok(response, response.getVersion());
     }
 
     @DeleteMapping("pokemon/{id}/delete")
@@ -0,0 +1,64 @@
+package com.pokemonreview.api.controllers;
+
+import com.pokemonreview.api.dto.RatingBucketDto;
+import com.pokemonreview.api.dto.TrendingPokemonDto;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/")
+public class RatingController {
+
+    private RatingService ratingService;
+
+    @Value("${app.ratings.trending.window-hours:24}")
+    private int defaultWindowHours = 24;
+
+    @Value("${app.ratings.trending.max-window-hours:168}")
+    private int maxWindowHours = 168;
+
+    @Value("${app.ratings.trending.max-limit:100}")
+    private int maxLimit = 100;
+
+    @Autowired
+    public RatingController(RatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    @GetMapping("pokemon/{pokemonId}/ratings/history")
+    public ResponseEntity<List<RatingBucketDto>> getRatingHistory(@PathVariable(value = "pokemonId") int pokemonId,
+                                                                  @RequestParam(value = "granularity", defaultValue = "hour") String granularity,
+                                                                  @RequestParam(value = "from", required = false) Instant from,
+                                                                  @RequestParam(value = "to", required = false) Instant to) {
+        return new ResponseEntity<>(ratingService.getRatingHistory(pokemonId, granularity(granularity), from, to), HttpStatus.OK);
+    }
+
+    @GetMapping("pokemon/trending")
+    public ResponseEntity<List<TrendingPokemonDto>> getTrending(@RequestParam(value = "limit", defaultValue = "10") int limit,
+                                                                @RequestParam(value = "window", required = false) Integer windowHours) {
+        int window = windowHours == null ? defaultWindowHours : Math.max(1, Math.min(windowHours, maxWindowHours));
+        return new ResponseEntity<>(ratingService.getTrending(window, Math.max(0, Math.min(limit, maxLimit))), HttpStatus.OK);
+    }
+
+    private static RollupGranularity granularity(String value) {
+        try {
+            return RollupGranularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidFieldException("Unknown granularity: " + value + ", expected hour or day");
+        }
+    }
+}
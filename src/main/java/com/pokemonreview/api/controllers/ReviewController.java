@@ -1,27 +1,52 @@
 package com.pokemonreview.api.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.ReviewBatchResponse;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.ReviewBroadcaster;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
 import com.pokemonreview.api.service.ReviewService;
+import com.pokemonreview.api.writebehind.ReviewWriteBehind;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/")
 public class ReviewController {
 
     private ReviewService reviewService;
+    private ReviewBroadcaster reviewBroadcaster;
+    private ReviewWriteBehind reviewWriteBehind;
+    private SparseFields sparseFields;
 
     @Autowired
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ReviewBroadcaster reviewBroadcaster,
+                            ObjectProvider<ReviewWriteBehind> reviewWriteBehind, ObjectMapper objectMapper) {
         this.reviewService = reviewService;
+        this.reviewBroadcaster = reviewBroadcaster;
+        this.reviewWriteBehind = reviewWriteBehind.getIfAvailable();
+        this.sparseFields = new SparseFields(objectMapper);
     }
 
+    /**
+     * Saves the review right away, or in write-behind mode queues it and answers 202 with the accepted review, which
+     * has no id yet.
+     */
     @PostMapping("/pokemon/{pokemonId}/reviews")
     public ResponseEntity<ReviewDto> createReview(@PathVariable(value = "pokemonId") int pokemonId, @RequestBody ReviewDto reviewDto) {
+        if (reviewWriteBehind != null) {
+            return new ResponseEntity<>(reviewWriteBehind.submit(pokemonId, reviewDto), HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(reviewService.createReview(pokemonId, reviewDto), HttpStatus.CREATED);
     }
 
@@ -30,17 +55,52 @@ public class ReviewController {
         return reviewService.getReviewsByPokemonId(pokemonId);
     }
 
+    @GetMapping(value = "/pokemon/{pokemonId}/reviews", params = "fields")
+    public JsonNode getReviewsByPokemonIdFields(@PathVariable(value = "pokemonId") int pokemonId,
+                                                @RequestParam(value = "fields") Set<String> fields) {
+        if (fields.isEmpty()) {
+            throw new InvalidFieldException("fields must name at least one field");
+        }
+        return sparseFields.write(reviewService.getReviewsByPokemonId(pokemonId, fields));
+    }
+
+    @GetMapping(value = "/pokemon/{pokemonId}/reviews/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReviews(@PathVariable(value = "pokemonId") int pokemonId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return reviewBroadcaster.subscribe(pokemonId, lastEventId);
+    }
+
+    @GetMapping("/pokemon/reviews")
+    public ResponseEntity<ReviewBatchResponse> getReviewsByPokemonIds(@RequestParam("pokemonIds") List<Integer> pokemonIds) {
+        return new ResponseEntity<>(reviewService.getReviewsByPokemonIds(pokemonIds), HttpStatus.OK);
+    }
+
     @GetMapping("/pokemon/{pokemonId}/reviews/{id}")
     public ResponseEntity<ReviewDto> getReviewById(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId) {
         ReviewDto reviewDto = reviewService.getReviewById(pokemonId, reviewId);
-        return new ResponseEntity<>(reviewDto, HttpStatus.OK);
+        return ETags.ok(reviewDto, reviewDto.getVersion());
     }
 
     @PutMapping("/pokemon/{pokemonId}/reviews/{id}")
     public ResponseEntity<ReviewDto> updateReview(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId,
-                                                  @RequestBody ReviewDto reviewDto) {
+                                                  @RequestBody ReviewDto reviewDto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            reviewDto.setVersion(ETags.parseIfMatch(ifMatch));
+        }
         ReviewDto updatedReview = reviewService.updateReview(pokemonId, reviewId, reviewDto);
-        return new ResponseEntity<>(updatedReview, HttpStatus.OK);
+        return ETags.ok(updatedReview, updatedReview.getVersion());
+    }
+
+    @PatchMapping("/pokemon/{pokemonId}/reviews/{id}")
+    public ResponseEntity<ReviewDto> patchReview(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId,
+                                                 @RequestBody ReviewDto reviewDto,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            reviewDto.setVersion(ETags.parseIfMatch(ifMatch));
+        }
+        ReviewDto patchedReview = reviewService.patchReview(pokemonId, reviewId, reviewDto);
+        return ETags.ok(patchedReview, patchedReview.getVersion());
     }
 
     @DeleteMapping("/pokemon/{pokemonId}/reviews/{id}")
@@ -0,0 +1,23 @@
+package com.pokemonreview.api.controllers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes responses of {@code fields=} requests, whose dtos leave the fields that were not requested null. Those
+ * nulls are dropped here, while full responses keep serializing null fields. The result is a tree, so the JSON, CBOR
+ * and Smile converters still write it in the negotiated format.
+ */
+final class SparseFields {
+
+    private final ObjectMapper objectMapper;
+
+    SparseFields(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    JsonNode write(Object response) {
+        return objectMapper.valueToTree(response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.pokemonreview.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pokemonreview.api.models.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDto {
+    private long offset;
+    private String eventId;
+    private String aggregateType;
+    private int aggregateId;
+    private int pokemonId;
+    private ChangeType eventType;
+    private JsonNode payload;
+    private Instant occurredAt;
+}
@@ -1,16 +1,23 @@
 package com.pokemonreview.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class PokemonDto {
-    private int id;
+    private Integer id;
     private String name;
     private String type;
+    private Integer version;
+    // only embedded with include=reviews, and left out otherwise
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ReviewDto> reviews;
 }
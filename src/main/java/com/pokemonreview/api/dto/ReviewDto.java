@@ -6,14 +6,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ReviewDto {
-    private int id;
+    private Integer id;
     private String title;
     private String content;
-    private int stars;
-    private int pokemonId;
+    private Integer stars;
+    private Integer pokemonId;
+    private Integer version;
+    private Instant createdAt;
+    private Instant updatedAt;
 }
@@ -0,0 +1,174 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only JSON lines file of relayed change events. The line number is the event's offset; every
+ * {@value #INDEX_INTERVAL}th line start is kept in memory so reads from an offset seek close to it instead of
+ * scanning the file.
+ */
+@Component
+public class ChangeEventLog {
+
+    static final int INDEX_INTERVAL = 256;
+
+    private ObjectMapper objectMapper;
+    private Path file;
+    private FileChannel channel;
+    private List<Long> index = new ArrayList<>();
+    private long nextOffset;
+
+    @Autowired
+    public ChangeEventLog(ObjectMapper objectMapper, @Value("${app.outbox.log.file:data/change-events.jsonl}") Path file) throws IOException {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+
+    /**
+     * Assigns consecutive offsets to the events and appends them; returns once they are on disk.
+     */
+    public synchronized void append(List<ChangeEventDto> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long position;
+        try {
+            position = channel.size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            List<Long> checkpoints = new ArrayList<>();
+            long offset = nextOffset;
+            for (ChangeEventDto event : events) {
+                event.setOffset(offset);
+                if (offset % INDEX_INTERVAL == 0) {
+                    checkpoints.add(position + lines.size());
+                }
+                lines.write(objectMapper.writeValueAsBytes(event));
+                lines.write('\n');
+                offset++;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            channel.force(false);
+            index.addAll(checkpoints);
+            nextOffset = offset;
+        } catch (IOException ex) {
+            truncate(position);
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public synchronized long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Returns up to {@code limit} events starting at {@code offset}, and the offset to continue from.
+     */
+    public ChangeEventResponse read(long offset, int limit) {
+        long end;
+        long start;
+        synchronized (this) {
+            end = nextOffset;
+            offset = Math.max(0, Math.min(offset, end));
+            start = offset < end ? index.get((int) (offset / INDEX_INTERVAL)) : 0;
+        }
+
+        List<ChangeEventDto> events = new ArrayList<>();
+        if (offset < end && limit > 0) {
+            try (InputStream in = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ).position(start));
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                long current = offset / INDEX_INTERVAL * INDEX_INTERVAL;
+                while (current < end && events.size() < limit) {
+                    String line = reader.readLine();
+                    if (current >= offset) {
+                        events.add(objectMapper.readValue(line, ChangeEventDto.class));
+                    }
+                    current++;
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return ChangeEventResponse.builder().events(events).nextOffset(offset + events.size()).build();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void truncate(long size) {
+        try {
+            channel.truncate(size);
+        } catch (IOException ignored) {
+            // the next recovery drops the partial line
+        }
+    }
+
+    // rebuilds the index and drops a trailing partial line left by a crash during append
+    private void recover() throws IOException {
+        long position = 0;
+        long lastLineEnd = 0;
+        try (InputStream in = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ))) {
+            byte[] buffer = new byte[64 * 1024];
+            boolean lineStart = true;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (lineStart) {
+                        if (nextOffset % INDEX_INTERVAL == 0) {
+                            index.add(position + i);
+                        }
+                        lineStart = false;
+                    }
+                    if (buffer[i] == '\n') {
+                        nextOffset++;
+                        lastLineEnd = position + i + 1;
+                        lineStart = true;
+                    }
+                }
+                position += read;
+            }
+        }
+        if (lastLineEnd < channel.size()) {
+            channel.truncate(lastLineEnd);
+        }
+        while (index.size() > (nextOffset + INDEX_INTERVAL - 1) / INDEX_INTERVAL) {
+            index.remove(index.size() - 1);
+        }
+    }
+}
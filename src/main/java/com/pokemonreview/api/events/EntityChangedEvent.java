@@ -0,0 +1,32 @@
+package com.pokemonreview.api.events;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the services inside the writing transaction; {@link OutboxWriter} stores it in the outbox of the
+ * database the transaction runs on. The payload is the written dto, {@code null} for deletions.
+ */
+@Getter
+@AllArgsConstructor
+public class EntityChangedEvent {
+    public static final String POKEMON = "pokemon";
+    public static final String REVIEW = "review";
+
+    private final String aggregateType;
+    private final int aggregateId;
+    private final int pokemonId;
+    private final ChangeType eventType;
+    private final Object payload;
+
+    public static EntityChangedEvent pokemon(ChangeType eventType, int pokemonId, PokemonDto pokemon) {
+        return new EntityChangedEvent(POKEMON, pokemonId, pokemonId, eventType, pokemon);
+    }
+
+    public static EntityChangedEvent review(ChangeType eventType, int pokemonId, int reviewId, ReviewDto review) {
+        return new EntityChangedEvent(REVIEW, reviewId, pokemonId, eventType, review);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pokemonreview.api.events;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    // scheduled methods are only registered once their bean exists, which lazy initialization would postpone forever
+    @Bean
+    public static LazyInitializationExcludeFilter outboxRelayEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(OutboxRelay.class);
+    }
+}
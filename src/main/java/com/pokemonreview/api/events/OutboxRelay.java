@@ -0,0 +1,100 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.models.OutboxEvent;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves outbox rows into the {@link ChangeEventLog} in batches, oldest first, from the primary database and every
+ * review shard. A batch is appended to the log before it is deleted from the outbox in the same transaction, so a
+ * crash in between relays it again: delivery is at least once and consumers deduplicate on {@code eventId}.
+ * <p>
+ * The log is a local file, so exactly one instance may relay: with several, each drains a disjoint part of the shared
+ * outbox into its own log. It is therefore off unless {@code app.outbox.relay.enabled} is set, and {@code /api/events}
+ * should be served by that instance only.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox.relay", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private OutboxEventRepository outboxEventRepository;
+    private ShardTemplate shardTemplate;
+    private ChangeEventLog changeEventLog;
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, ShardTemplate shardTemplate,
+                       ChangeEventLog changeEventLog, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardTemplate = shardTemplate;
+        this.changeEventLog = changeEventLog;
+        this.objectMapper = objectMapper;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:500}")
+    public void relay() {
+        List<String> backlogged = new ArrayList<>();
+        do {
+            backlogged.clear();
+            shardTemplate.writeEach(source -> {
+                if (relayBatch(source) >= batchSize) {
+                    backlogged.add(source);
+                }
+            });
+        } while (!backlogged.isEmpty());
+    }
+
+    private int relayBatch(String source) {
+        List<OutboxEvent> batch = outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<ChangeEventDto> events = batch.stream().map(outboxEvent -> toDto(source, outboxEvent)).collect(Collectors.toList());
+        try {
+            changeEventLog.append(events);
+        } catch (UncheckedIOException ex) {
+            log.error("Could not append {} change events from {}, keeping them in the outbox", events.size(), source, ex);
+            throw ex;
+        }
+        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).collect(Collectors.toList()));
+        return batch.size();
+    }
+
+    private ChangeEventDto toDto(String source, OutboxEvent outboxEvent) {
+        try {
+            return ChangeEventDto.builder()
+                    .eventId(source + ":" + outboxEvent.getId())
+                    .aggregateType(outboxEvent.getAggregateType())
+                    .aggregateId(outboxEvent.getAggregateId())
+                    .pokemonId(outboxEvent.getPokemonId())
+                    .eventType(outboxEvent.getEventType())
+                    .payload(outboxEvent.getPayload() == null ? null : objectMapper.readTree(outboxEvent.getPayload()))
+                    .occurredAt(outboxEvent.getCreatedAt())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload in outbox event " + source + ":" + outboxEvent.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.models.OutboxEvent;
+import com.pokemonreview.api.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+
+@Component
+public class OutboxWriter {
+
+    private OutboxEventRepository outboxEventRepository;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // a plain listener runs synchronously on the publishing thread, so the row joins the writing transaction
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change events must be published inside the writing transaction");
+        }
+
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .pokemonId(event.getPokemonId())
+                .eventType(event.getEventType())
+                .payload(toJson(event.getPayload()))
+                .createdAt(Instant.now())
+                .build();
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize change event payload", ex);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.pokemonreview.api.events;
+
+import com.pokemonreview.api.models.RatingRollupId;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the hourly and daily rating rollups in step with the reviews. Rating changes are summed per bucket while the
+ * writing transaction runs and applied just before it commits, one upsert per touched bucket, so a batch of reviews
+ * costs a handful of statements and the rollups commit or roll back together with the reviews.
+ */
+@Component
+public class RatingRollupWriter {
+
+    // every transaction upserts its buckets in the same order, so two of them cannot deadlock on each other's rows
+    private static final Comparator<RatingRollupId> BUCKET_ORDER = Comparator.comparingInt(RatingRollupId::getPokemonId)
+            .thenComparing(RatingRollupId::getGranularity)
+            .thenComparing(RatingRollupId::getBucketStart);
+
+    private RatingRollupRepository ratingRollupRepository;
+
+    @Autowired
+    public RatingRollupWriter(RatingRollupRepository ratingRollupRepository) {
+        this.ratingRollupRepository = ratingRollupRepository;
+    }
+
+    @EventListener
+    public void onRatingChanged(ReviewRatingChangedEvent event) {
+        // reviews from before timestamps were recorded belong to no bucket
+        if (event.getCreatedAt() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Rating changes must be published inside the writing transaction");
+        }
+
+        PendingDeltas pending = pendingDeltas();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            long[] delta = pending.deltas.computeIfAbsent(
+                    new RatingRollupId(event.getPokemonId(), granularity, granularity.bucketOf(event.getCreatedAt())),
+                    id -> new long[2]);
+            delta[0] += event.getReviewCountDelta();
+            delta[1] += event.getStarsDelta();
+        }
+    }
+
+    // looked up among the current transaction's synchronizations, which hide those of suspended outer transactions
+    private PendingDeltas pendingDeltas() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingDeltas) {
+                return (PendingDeltas) synchronization;
+            }
+        }
+        PendingDeltas pending = new PendingDeltas();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private final class PendingDeltas implements TransactionSynchronization {
+        final Map<RatingRollupId, long[]> deltas = new TreeMap<>(BUCKET_ORDER);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            deltas.forEach((id, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0) {
+                    ratingRollupRepository.increment(id.getPokemonId(), id.getGranularity(), id.getBucketStart(), delta[0], delta[1]);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.repository.PokemonRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed review changes to server-sent event subscribers, one shared channel per pokemon. Every event is
+ * serialized once and offered to each subscriber's bounded queue; a small pool of sender threads drains the queues
+ * into the connections. A subscriber whose queue is full is disconnected rather than slowing down the others, and can
+ * reconnect with {@code Last-Event-ID} to replay what it missed from the channel's recent events. When those no
+ * longer reach back far enough, or it missed more events than its queue holds, it gets a {@code reset} event instead
+ * and should reload the reviews.
+ */
+@Component
+public class ReviewBroadcaster {
+
+    static final String RESET = "reset";
+
+    private PokemonRepository pokemonRepository;
+    private ObjectMapper objectMapper;
+    private ExecutorService senders;
+    private final ConcurrentMap<Integer, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${app.reviews.stream.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${app.reviews.stream.replay-size:256}")
+    private int replaySize = 256;
+
+    @Value("${app.reviews.stream.timeout:1800000}")
+    private long timeout = 1_800_000;
+
+    @Value("${app.reviews.stream.retention:300000}")
+    private long retention = 300_000;
+
+    @Value("${app.reviews.stream.sender-threads:4}")
+    private int senderThreads = 4;
+
+    @Autowired
+    public ReviewBroadcaster(PokemonRepository pokemonRepository, ObjectMapper objectMapper) {
+        this.pokemonRepository = pokemonRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    ReviewBroadcaster(PokemonRepository pokemonRepository, ObjectMapper objectMapper, ExecutorService senders,
+                      int bufferSize, int replaySize) {
+        this(pokemonRepository, objectMapper);
+        this.senders = senders;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (senders == null) {
+            AtomicInteger threads = new AtomicInteger();
+            senders = Executors.newFixedThreadPool(senderThreads, task -> {
+                Thread thread = new Thread(task, "review-stream-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        channels.values().forEach(Channel::close);
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(int pokemonId, Long lastEventId) {
+        if (!pokemonRepository.existsById(pokemonId)) {
+            throw new PokemonNotFoundException("Pokemon could not be found");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        Channel channel;
+        do {
+            channel = channels.computeIfAbsent(pokemonId, id -> new Channel());
+        } while (!channel.join(subscriber, lastEventId));
+
+        Channel joined = channel;
+        emitter.onCompletion(() -> joined.leave(subscriber));
+        emitter.onTimeout(() -> joined.leave(subscriber));
+        emitter.onError(ex -> joined.leave(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (!EntityChangedEvent.REVIEW.equals(event.getAggregateType())) {
+            return;
+        }
+        // without a channel nobody is listening and there is nothing to resume
+        Channel channel = channels.get(event.getPokemonId());
+        if (channel == null) {
+            return;
+        }
+
+        Object payload = event.getPayload() != null ? event.getPayload()
+                : ReviewDto.builder().id(event.getAggregateId()).pokemonId(event.getPokemonId()).build();
+        channel.publish(event.getEventType().name().toLowerCase(), toJson(payload));
+    }
+
+    /**
+     * Keeps idle connections open through proxies and drops channels that have had no subscribers for longer than
+     * {@code app.reviews.stream.retention}.
+     */
+    @Scheduled(fixedDelayString = "${app.reviews.stream.heartbeat-interval:15000}")
+    public void heartbeat() {
+        long idleSince = System.currentTimeMillis() - retention;
+        channels.forEach((pokemonId, channel) -> {
+            if (channel.closeIfIdle(idleSince)) {
+                channels.remove(pokemonId, channel);
+            } else {
+                channel.heartbeat();
+            }
+        });
+    }
+
+    int subscriberCount(int pokemonId) {
+        Channel channel = channels.get(pokemonId);
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize review event", ex);
+        }
+    }
+
+    private static final class Message {
+        static final Message HEARTBEAT = new Message(0, null, null);
+
+        final long id;
+        final String name;
+        final String data;
+
+        Message(long id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        void sendTo(SseEmitter emitter) throws IOException {
+            if (this == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (id == 0) {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(SseEmitter.event().id(String.valueOf(id)).name(name).data(data, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private final class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final ArrayDeque<Message> replay = new ArrayDeque<>();
+        // events of this pokemon up to here may be missing from the replay buffer
+        long replayableAfter = sequence.get();
+        long lastActivity = System.currentTimeMillis();
+        boolean closed;
+
+        synchronized boolean join(Subscriber subscriber, Long lastEventId) {
+            if (closed) {
+                return false;
+            }
+            if (lastEventId != null) {
+                if (lastEventId < replayableAfter || lastEventId > sequence.get()
+                        || missedSince(lastEventId) > subscriber.queue.remainingCapacity()) {
+                    subscriber.offer(new Message(0, RESET, "{}"));
+                } else {
+                    for (Message message : replay) {
+                        if (message.id > lastEventId) {
+                            subscriber.offer(message);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+            return true;
+        }
+
+        private int missedSince(long lastEventId) {
+            int missed = 0;
+            for (Message message : replay) {
+                if (message.id > lastEventId) {
+                    missed++;
+                }
+            }
+            return missed;
+        }
+
+        synchronized void leave(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            lastActivity = System.currentTimeMillis();
+        }
+
+        // ids are taken under the channel lock so every subscriber sees them in increasing order
+        synchronized void publish(String name, String data) {
+            Message message = new Message(sequence.incrementAndGet(), name, data);
+            replay.addLast(message);
+            if (replay.size() > replaySize) {
+                replayableAfter = replay.removeFirst().id;
+            }
+            lastActivity = System.currentTimeMillis();
+            deliver(message);
+        }
+
+        synchronized void heartbeat() {
+            deliver(Message.HEARTBEAT);
+        }
+
+        synchronized boolean closeIfIdle(long idleSince) {
+            closed = subscribers.isEmpty() && lastActivity < idleSince;
+            return closed;
+        }
+
+        synchronized void close() {
+            closed = true;
+            subscribers.forEach(Subscriber::disconnect);
+            subscribers.clear();
+        }
+
+        private void deliver(Message message) {
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(message)) {
+                    subscribers.remove(subscriber);
+                    subscriber.disconnect();
+                }
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+        final SseEmitter emitter;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean disconnected;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        boolean offer(Message message) {
+            if (!queue.offer(message)) {
+                return false;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+            return true;
+        }
+
+        void disconnect() {
+            disconnected = true;
+            queue.clear();
+            emitter.complete();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Message message;
+                while (!disconnected && (message = queue.poll()) != null) {
+                    message.sendTo(emitter);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                disconnected = true;
+                emitter.completeWithError(ex);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // an offer may have raced with the end of the loop
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+    }
+}
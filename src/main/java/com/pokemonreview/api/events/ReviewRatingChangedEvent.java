@@ -0,0 +1,32 @@
+package com.pokemonreview.api.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Published by the review service inside the writing transaction with how much a pokemon's review count and star
+ * total changed, so aggregates can be kept up to date without counting reviews again. {@code createdAt} is when the
+ * affected review was created, or null for reviews older than review timestamps.
+ */
+@Getter
+@AllArgsConstructor
+public class ReviewRatingChangedEvent {
+    private final int pokemonId;
+    private final int reviewCountDelta;
+    private final long starsDelta;
+    private final Instant createdAt;
+
+    public static ReviewRatingChangedEvent created(int pokemonId, int stars, Instant createdAt) {
+        return new ReviewRatingChangedEvent(pokemonId, 1, stars, createdAt);
+    }
+
+    public static ReviewRatingChangedEvent updated(int pokemonId, int oldStars, int newStars, Instant createdAt) {
+        return new ReviewRatingChangedEvent(pokemonId, 0, (long) newStars - oldStars, createdAt);
+    }
+
+    public static ReviewRatingChangedEvent deleted(int pokemonId, int stars, Instant createdAt) {
+        return new ReviewRatingChangedEvent(pokemonId, -1, -stars, createdAt);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class BatchTooLargeException extends RuntimeException {
+    private static final long serialVerisionUID = 5;
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class InvalidFieldException extends RuntimeException {
+    private static final long serialVerisionUID = 4;
+
+    public InvalidFieldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pokemonreview.api.exceptions;
+
+public class VersionMismatchException extends RuntimeException {
+    private static final long serialVerisionUID = 3;
+
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
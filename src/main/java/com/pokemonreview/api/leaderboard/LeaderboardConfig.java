@@ -0,0 +1,15 @@
+package com.pokemonreview.api.leaderboard;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LeaderboardConfig {
+
+    // built lazily, the leaderboard would be created by the first review event and count that review twice
+    @Bean
+    public static LazyInitializationExcludeFilter reviewLeaderboardEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ReviewLeaderboard.class);
+    }
+}
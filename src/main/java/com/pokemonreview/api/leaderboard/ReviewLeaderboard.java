@@ -0,0 +1,317 @@
+package com.pokemonreview.api.leaderboard;
+
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.LeaderboardEntryDto;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.events.ReviewRatingChangedEvent;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.snapshot.CacheSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory "top rated" and "most reviewed" rankings. Each pokemon's review count and star total live in two skip
+ * lists ordered by rank, so a committed review change moves one entry in O(log n) and a top-N query walks the first N
+ * entries without touching the database. The rankings are rebuilt from the review databases at startup, or restored
+ * from a {@link CacheSnapshot} when one is enabled and current, follow this instance's committed review changes, and
+ * are rebuilt every {@code app.leaderboard.refresh-interval} to pick up reviews written by other instances or the
+ * reactive application.
+ * <p>
+ * Pokemon need {@code app.leaderboard.min-reviews} reviews to be ranked by rating, so a single five-star review does
+ * not top the list.
+ */
+@Component
+public class ReviewLeaderboard {
+
+    public static final String SNAPSHOT_SECTION = "review-leaderboard";
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewLeaderboard.class);
+
+    // highest average first, compared as fractions to stay exact; more reviews break ties
+    private static final Comparator<Score> BY_RATING = (a, b) -> {
+        int byAverage = Long.compare(b.stars * a.count, a.stars * b.count);
+        if (byAverage != 0) {
+            return byAverage;
+        }
+        int byCount = Long.compare(b.count, a.count);
+        return byCount != 0 ? byCount : Integer.compare(a.pokemonId, b.pokemonId);
+    };
+
+    private static final Comparator<Score> BY_COUNT = (a, b) -> {
+        int byCount = Long.compare(b.count, a.count);
+        if (byCount != 0) {
+            return byCount;
+        }
+        int byAverage = Long.compare(b.stars * a.count, a.stars * b.count);
+        return byAverage != 0 ? byAverage : Integer.compare(a.pokemonId, b.pokemonId);
+    };
+
+    private PokemonRepository pokemonRepository;
+    private ReviewRepository reviewRepository;
+    private ShardTemplate shardTemplate;
+    private CacheSnapshot cacheSnapshot;
+    private final Map<Integer, Score> scores = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final NavigableSet<Score> byRating = new ConcurrentSkipListSet<>(BY_RATING);
+    private final NavigableSet<Score> byCount = new ConcurrentSkipListSet<>(BY_COUNT);
+    private final Object rebuilding = new Object();
+    // pokemon whose reviews changed and pokemon changes committed while a rebuild reads the databases
+    private Set<Integer> changedDuringRebuild;
+    private List<EntityChangedEvent> pokemonChangesDuringRebuild;
+
+    @Value("${app.leaderboard.min-reviews:3}")
+    private int minReviews = 3;
+
+    @Autowired
+    public ReviewLeaderboard(PokemonRepository pokemonRepository, ReviewRepository reviewRepository, ShardTemplate shardTemplate,
+                             ObjectProvider<CacheSnapshot> cacheSnapshot) {
+        this.pokemonRepository = pokemonRepository;
+        this.reviewRepository = reviewRepository;
+        this.shardTemplate = shardTemplate;
+        this.cacheSnapshot = cacheSnapshot.getIfAvailable();
+    }
+
+    ReviewLeaderboard(int minReviews) {
+        this.minReviews = minReviews;
+    }
+
+    @PostConstruct
+    public void start() {
+        ByteBuffer saved = cacheSnapshot == null ? null : cacheSnapshot.section(SNAPSHOT_SECTION);
+        if (saved == null) {
+            rebuild();
+        } else {
+            restore(saved);
+        }
+    }
+
+    /**
+     * Replaces the rankings with the totals of the review databases. A review change committed while they are read may
+     * or may not be in them, and its delta cannot be applied twice, so pokemon whose reviews changed meanwhile keep the
+     * totals followed so far until the next rebuild. Pokemon changes committed meanwhile are applied again.
+     */
+    public void rebuild() {
+        synchronized (rebuilding) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+                pokemonChangesDuringRebuild = new ArrayList<>();
+            }
+            List<Object[]> pokemonNames;
+            List<Object[]> totals;
+            try {
+                pokemonNames = pokemonRepository.findAllNames();
+                totals = shardTemplate.readEach(reviewRepository::countAndSumStarsByPokemonId);
+            } catch (RuntimeException ex) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                    pokemonChangesDuringRebuild = null;
+                }
+                throw ex;
+            }
+            replace(pokemonNames, totals);
+        }
+        log.info("Leaderboard rebuilt with {} reviewed pokemon", scores.size());
+    }
+
+    @Scheduled(initialDelayString = "${app.leaderboard.refresh-interval:300000}",
+            fixedDelayString = "${app.leaderboard.refresh-interval:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * Takes the review totals from a snapshot that matches the review databases, and only the names from the database.
+     */
+    void restore(ByteBuffer saved) {
+        List<Object[]> pokemonNames = pokemonRepository.findAllNames();
+        int size = saved.getInt();
+        List<Object[]> totals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            totals.add(new Object[]{saved.getInt(), saved.getLong(), saved.getLong()});
+        }
+        replace(pokemonNames, totals);
+        log.info("Leaderboard restored with {} reviewed pokemon", scores.size());
+    }
+
+    /**
+     * The review totals for a {@link CacheSnapshot}, or {@code null} when they do not add up to the totals of the
+     * review databases, e.g. because another instance wrote reviews since the leaderboard was built.
+     */
+    public synchronized ByteBuffer exportSnapshot(long reviewCount, long starSum, long pokemonIdSum, long weightedStarSum) {
+        long count = 0;
+        long stars = 0;
+        long pokemonIds = 0;
+        long weightedStars = 0;
+        for (Score score : scores.values()) {
+            count += score.count;
+            stars += score.stars;
+            pokemonIds += score.pokemonId * score.count;
+            weightedStars += score.pokemonId * score.stars;
+        }
+        if (count != reviewCount || stars != starSum || pokemonIds != pokemonIdSum || weightedStars != weightedStarSum) {
+            return null;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(4 + 20 * scores.size());
+        out.putInt(scores.size());
+        for (Score score : scores.values()) {
+            out.putInt(score.pokemonId).putLong(score.count).putLong(score.stars);
+        }
+        return out.flip();
+    }
+
+    private void replace(List<Object[]> pokemonNames, List<Object[]> totals) {
+        synchronized (this) {
+            Set<Integer> changed = changedDuringRebuild == null ? Set.of() : changedDuringRebuild;
+            List<EntityChangedEvent> pokemonChanges = pokemonChangesDuringRebuild == null ? List.of()
+                    : pokemonChangesDuringRebuild;
+            changedDuringRebuild = null;
+            pokemonChangesDuringRebuild = null;
+            List<Score> followed = new ArrayList<>();
+            for (int pokemonId : changed) {
+                Score score = scores.get(pokemonId);
+                if (score != null) {
+                    followed.add(score);
+                }
+            }
+
+            scores.clear();
+            names.clear();
+            byRating.clear();
+            byCount.clear();
+            for (Object[] row : pokemonNames) {
+                names.put((Integer) row[0], (String) row[1]);
+            }
+            // pokemon created or deleted while the names were read
+            pokemonChanges.forEach(this::apply);
+            for (Object[] row : totals) {
+                int pokemonId = (Integer) row[0];
+                if (names.containsKey(pokemonId) && !changed.contains(pokemonId)) {
+                    update(pokemonId, ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+                }
+            }
+            for (Score score : followed) {
+                if (names.containsKey(score.pokemonId)) {
+                    update(score.pokemonId, score.count, score.stars);
+                }
+            }
+        }
+    }
+
+    public List<LeaderboardEntryDto> getTopRated(int limit) {
+        return top(byRating, limit);
+    }
+
+    public List<LeaderboardEntryDto> getMostReviewed(int limit) {
+        return top(byCount, limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onRatingChanged(ReviewRatingChangedEvent event) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(event.getPokemonId());
+        }
+        Score current = scores.get(event.getPokemonId());
+        long count = event.getReviewCountDelta();
+        long stars = event.getStarsDelta();
+        if (current != null) {
+            count += current.count;
+            stars += current.stars;
+        }
+        update(event.getPokemonId(), count, stars);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChanged(EntityChangedEvent event) {
+        if (!EntityChangedEvent.POKEMON.equals(event.getAggregateType())) {
+            return;
+        }
+        if (pokemonChangesDuringRebuild != null) {
+            pokemonChangesDuringRebuild.add(event);
+        }
+        apply(event);
+    }
+
+    // callers hold the monitor
+    private void apply(EntityChangedEvent event) {
+        if (event.getEventType() == ChangeType.DELETED) {
+            names.remove(event.getPokemonId());
+            update(event.getPokemonId(), 0, 0);
+        } else if (event.getPayload() instanceof PokemonDto && ((PokemonDto) event.getPayload()).getName() != null) {
+            names.put(event.getPokemonId(), ((PokemonDto) event.getPayload()).getName());
+        }
+    }
+
+    // callers hold the monitor; readers may briefly see an entry in both its old and new position, or in neither
+    private void update(int pokemonId, long count, long stars) {
+        Score previous = scores.remove(pokemonId);
+        if (previous != null) {
+            byRating.remove(previous);
+            byCount.remove(previous);
+        }
+        if (count <= 0) {
+            return;
+        }
+
+        Score score = new Score(pokemonId, count, stars);
+        scores.put(pokemonId, score);
+        byCount.add(score);
+        if (count >= minReviews) {
+            byRating.add(score);
+        }
+    }
+
+    private List<LeaderboardEntryDto> top(NavigableSet<Score> ranking, int limit) {
+        List<LeaderboardEntryDto> entries = new ArrayList<>(Math.min(limit, scores.size()));
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Score> iterator = ranking.iterator();
+        while (entries.size() < limit && iterator.hasNext()) {
+            Score score = iterator.next();
+            if (seen.add(score.pokemonId)) {
+                entries.add(LeaderboardEntryDto.builder()
+                        .rank(entries.size() + 1)
+                        .pokemonId(score.pokemonId)
+                        .name(names.get(score.pokemonId))
+                        .reviewCount(score.count)
+                        .averageStars((double) score.stars / score.count)
+                        .build());
+            }
+        }
+        return entries;
+    }
+
+    private static final class Score {
+        final int pokemonId;
+        final long count;
+        final long stars;
+
+        Score(int pokemonId, long count, long stars) {
+            this.pokemonId = pokemonId;
+            this.count = count;
+            this.stars = stars;
+        }
+    }
+}
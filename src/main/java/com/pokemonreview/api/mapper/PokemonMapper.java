@@ -0,0 +1,45 @@
+package com.pokemonreview.api.mapper;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.models.Pokemon;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import java.util.Set;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PokemonMapper {
+    PokemonMapper INSTANCE = Mappers.getMapper(PokemonMapper.class);
+
+    /** Field names accepted by the {@code fields} query parameter. */
+    Set<String> FIELDS = Set.of("id", "name", "type", "version");
+
+    // reviews are only embedded on request, and never by walking the lazy collection
+    @Mapping(target = "reviews", ignore = true)
+    PokemonDto toDto(Pokemon pokemon);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reviews", ignore = true)
+    Pokemon toEntity(PokemonDto pokemonDto);
+
+    /** Builds a sparse dto from a projection whose elements are aliased with {@link #FIELDS} names. */
+    default PokemonDto toDto(Tuple tuple) {
+        PokemonDto pokemonDto = new PokemonDto();
+        for (TupleElement<?> element : tuple.getElements()) {
+            Object value = tuple.get(element);
+            switch (element.getAlias()) {
+                case "id": pokemonDto.setId((Integer) value); break;
+                case "name": pokemonDto.setName((String) value); break;
+                case "type": pokemonDto.setType((String) value); break;
+                case "version": pokemonDto.setVersion((Integer) value); break;
+                default: throw new IllegalArgumentException("Unexpected projection element " + element.getAlias());
+            }
+        }
+        return pokemonDto;
+    }
+}
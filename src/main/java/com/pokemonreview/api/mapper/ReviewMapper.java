@@ -0,0 +1,51 @@
+package com.pokemonreview.api.mapper;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.Review;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import java.time.Instant;
+import java.util.Set;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ReviewMapper {
+    ReviewMapper INSTANCE = Mappers.getMapper(ReviewMapper.class);
+
+    /** Field names accepted by the {@code fields} query parameter. */
+    Set<String> FIELDS = Set.of("id", "title", "content", "stars", "pokemonId", "version", "createdAt", "updatedAt");
+
+    @Mapping(target = "pokemonId", source = "pokemon.id")
+    ReviewDto toDto(Review review);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "pokemon", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Review toEntity(ReviewDto reviewDto);
+
+    /** Builds a sparse dto from a projection whose elements are aliased with {@link #FIELDS} names. */
+    default ReviewDto toDto(Tuple tuple) {
+        ReviewDto reviewDto = new ReviewDto();
+        for (TupleElement<?> element : tuple.getElements()) {
+            Object value = tuple.get(element);
+            switch (element.getAlias()) {
+                case "id": reviewDto.setId((Integer) value); break;
+                case "title": reviewDto.setTitle((String) value); break;
+                case "content": reviewDto.setContent((String) value); break;
+                case "stars": reviewDto.setStars((Integer) value); break;
+                case "pokemonId": reviewDto.setPokemonId((Integer) value); break;
+                case "version": reviewDto.setVersion((Integer) value); break;
+                case "createdAt": reviewDto.setCreatedAt((Instant) value); break;
+                case "updatedAt": reviewDto.setUpdatedAt((Instant) value); break;
+                default: throw new IllegalArgumentException("Unexpected projection element " + element.getAlias());
+            }
+        }
+        return reviewDto;
+    }
+}
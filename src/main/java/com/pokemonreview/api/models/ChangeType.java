@@ -0,0 +1,7 @@
+package com.pokemonreview.api.models;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
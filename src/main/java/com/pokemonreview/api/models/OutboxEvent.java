@@ -0,0 +1,36 @@
+package com.pokemonreview.api.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * A pokemon or review change, written in the same transaction as the change itself and removed once relayed.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    private String aggregateType;
+    private int aggregateId;
+    private int pokemonId;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType eventType;
+
+    @Column(length = 2000)
+    private String payload;
+    private Instant createdAt;
+}
@@ -1,15 +1,18 @@
 package com.pokemonreview.api.models;
 
+import com.pokemonreview.api.reference.PokemonTypeConverter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -19,8 +22,15 @@ public class Pokemon {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
     private String name;
+
+    // a pokemon_type code in the table, the shared name instance in memory
+    @Convert(converter = PokemonTypeConverter.class)
+    @Column(name = "type_id")
     private String type;
 
+    @Version
+    private int version;
+
     @OneToMany(mappedBy = "pokemon", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<Review>();
 }
@@ -0,0 +1,27 @@
+package com.pokemonreview.api.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * Number of reviews and their star total for one pokemon, over the reviews created within one hour or day. Rows are
+ * only ever incremented, in the transaction that creates, changes or deletes the reviews they count.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "rating_rollup")
+public class RatingRollup {
+    @EmbeddedId
+    private RatingRollupId id;
+    private long reviewCount;
+    private long starsTotal;
+}
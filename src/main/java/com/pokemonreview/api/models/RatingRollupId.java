@@ -0,0 +1,25 @@
+package com.pokemonreview.api.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class RatingRollupId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int pokemonId;
+
+    @Enumerated(EnumType.STRING)
+    private RollupGranularity granularity;
+    private Instant bucketStart;
+}
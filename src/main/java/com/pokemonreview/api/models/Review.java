@@ -2,12 +2,15 @@ package com.pokemonreview.api.models;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import javax.persistence.*;
+import java.time.Instant;
 
-@Data
+@Getter
+@Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -19,6 +22,11 @@ public class Review {
     private String title;
     private String content;
     private int stars;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @Version
+    private int version;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pokemon_id")
@@ -0,0 +1,26 @@
+package com.pokemonreview.api.models;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Width of a {@link RatingRollup} bucket. Buckets start on whole UTC hours and days.
+ */
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+}
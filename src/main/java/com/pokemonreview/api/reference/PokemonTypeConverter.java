@@ -0,0 +1,33 @@
+package com.pokemonreview.api.reference;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import javax.sql.DataSource;
+
+/**
+ * Stores {@code Pokemon.type} as its {@link PokemonTypeDictionary} code. Hibernate creates the converter through
+ * Spring and it shares the application's dictionary; JPA test slices have none, so it builds its own there.
+ */
+@Converter
+public class PokemonTypeConverter implements AttributeConverter<String, Short> {
+
+    private PokemonTypeDictionary dictionary;
+
+    @Autowired
+    public PokemonTypeConverter(ObjectProvider<PokemonTypeDictionary> dictionaries, DataSource dataSource) {
+        this.dictionary = dictionaries.getIfAvailable(() -> new PokemonTypeDictionary(dataSource));
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String type) {
+        return type == null ? null : dictionary.codeOf(type);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short code) {
+        return code == null ? null : dictionary.nameOf(code);
+    }
+}
@@ -0,0 +1,135 @@
+package com.pokemonreview.api.reference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pokemon types and their codes in the {@code pokemon_type} table. Pokemon rows store only the two-byte code, and in
+ * memory every pokemon of a type shares one name instance. All types are loaded at startup; a new type is added the
+ * first time it is used, and types are never removed.
+ * <p>
+ * The table is read and written over connections of its own rather than through JPA, since Hibernate asks for codes
+ * while it flushes or reads pokemon. A type added by another instance is picked up when a row with its code is read.
+ */
+@Component
+public class PokemonTypeDictionary implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PokemonTypeDictionary.class);
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private DataSource dataSource;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private final Map<Short, String> names = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @Autowired
+    public PokemonTypeDictionary(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // after every singleton, Flyway's included; instances created outside the context load on first use
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+        log.info("Loaded {} pokemon types", names.size());
+    }
+
+    /**
+     * Returns the shared instance of the type's name, adding the type first if it is new.
+     */
+    public String intern(String name) {
+        return name == null ? null : names.get(codeOf(name));
+    }
+
+    public short codeOf(String name) {
+        ensureLoaded();
+        Short code = codes.get(name);
+        return code != null ? code : add(name);
+    }
+
+    public String nameOf(short code) {
+        ensureLoaded();
+        String name = names.get(code);
+        if (name == null) {
+            load();
+            name = names.get(code);
+            if (name == null) {
+                throw new IllegalStateException("Unknown pokemon type code " + code);
+            }
+        }
+        return name;
+    }
+
+    synchronized void load() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT id, name FROM pokemon_type");
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                put(rows.getShort(1), rows.getString(2));
+            }
+            loaded = true;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not load pokemon types", ex);
+        }
+    }
+
+    // committed right away on its own connection, so the code stays valid even if the caller's transaction rolls back
+    private synchronized short add(String name) {
+        Short code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            code = find(connection, name);
+            if (code == null) {
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO pokemon_type (name) VALUES (?)")) {
+                    insert.setString(1, name);
+                    insert.executeUpdate();
+                } catch (SQLException ex) {
+                    // another instance added it first
+                    if (!UNIQUE_VIOLATION.equals(ex.getSQLState())) {
+                        throw ex;
+                    }
+                }
+                code = find(connection, name);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not add pokemon type " + name, ex);
+        }
+        put(code, name);
+        return code;
+    }
+
+    private void put(short code, String name) {
+        String shared = names.computeIfAbsent(code, key -> name);
+        codes.putIfAbsent(shared, code);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private static Short find(Connection connection, String name) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("SELECT id FROM pokemon_type WHERE name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next() ? rows.getShort(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pokemonreview.api.reference;
+
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Roles by name, loaded once at startup. Roles are seeded by migrations and do not change while the application runs,
+ * so registrations take their role from here instead of querying for it. The roles are detached and shared; callers
+ * only reference them from other entities.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private RoleRepository roleRepository;
+    private volatile Map<String, Role> roles = Map.of();
+
+    @Autowired
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        roles = Map.copyOf(roleRepository.findAll().stream().collect(Collectors.toMap(Role::getName, Function.identity())));
+        log.info("Loaded roles {}", roles.keySet());
+    }
+
+    public Role get(String name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            throw new IllegalStateException("Unknown role " + name);
+        }
+        return role;
+    }
+}
@@ -1,10 +1,42 @@
 package com.pokemonreview.api.repository;
 
 import com.pokemonreview.api.models.Pokemon;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PokemonRepository extends JpaRepository<Pokemon, Integer> {
+public interface PokemonRepository extends JpaRepository<Pokemon, Integer>, PokemonRepositoryCustom {
     Optional<Pokemon> findByType(String type);
+
+    @Query("select p.id from Pokemon p where p.id in :ids")
+    List<Integer> findIdsByIdIn(Collection<Integer> ids);
+
+    /**
+     * Every pokemon's name, as {@code [id, name]} rows.
+     */
+    @Query("select p.id, p.name from Pokemon p")
+    List<Object[]> findAllNames();
+
+    /**
+     * The first page of {@code [id, name, type, version]} rows with ids above {@code afterId}, in id order.
+     */
+    @Query("select p.id, p.name, p.type, p.version from Pokemon p where p.id > :afterId order by p.id")
+    List<Object[]> findColumnsAfter(int afterId, Pageable pageable);
+
+    /**
+     * One {@code [count, highest id, version total]} row.
+     */
+    @Query("select count(p), coalesce(max(p.id), 0), coalesce(sum(p.version), 0) from Pokemon p")
+    List<Object[]> aggregate();
+
+    @Modifying
+    @Transactional
+    @Query("delete from Pokemon p where p.id = :id")
+    int bulkDeleteById(int id);
 }
@@ -0,0 +1,22 @@
+package com.pokemonreview.api.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.Tuple;
+import java.util.Set;
+
+public interface PokemonRepositoryCustom {
+    /**
+     * Applies the non-null arguments in a single UPDATE statement and bumps the version.
+     * When {@code expectedVersion} is given the row is only updated if its version still matches.
+     *
+     * @return the number of updated rows
+     */
+    int patch(int id, String name, String type, Integer expectedVersion);
+
+    /**
+     * Selects only the given attributes of a page of pokemon. Each tuple element is aliased with its attribute name.
+     */
+    Page<Tuple> findAllFields(Set<String> fields, Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.Pokemon;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PokemonRepositoryCustomImpl implements PokemonRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(int id, String name, String type, Integer expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Pokemon> update = cb.createCriteriaUpdate(Pokemon.class);
+        Root<Pokemon> root = update.from(Pokemon.class);
+
+        if (name != null) {
+            update.set(root.<String>get("name"), name);
+        }
+        if (type != null) {
+            update.set(root.<String>get("type"), type);
+        }
+        update.set(root.<Integer>get("version"), cb.sum(root.<Integer>get("version"), 1));
+
+        Predicate where = cb.equal(root.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(where);
+
+        // same as @Modifying(flushAutomatically = true, clearAutomatically = true): the bulk update bypasses
+        // the persistence context, so pending changes go first and stale entities are dropped afterwards
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public Page<Tuple> findAllFields(Set<String> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Pokemon> root = query.from(Pokemon.class);
+        query.multiselect(fields.stream().map(field -> root.get(field).alias(field)).collect(Collectors.toList()));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Tuple> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        count.select(cb.count(count.from(Pokemon.class)));
+        return PageableExecutionUtils.getPage(content, pageable, () -> entityManager.createQuery(count).getSingleResult());
+    }
+}
@@ -0,0 +1,26 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.RatingRollup;
+import com.pokemonreview.api.models.RatingRollupId;
+import com.pokemonreview.api.models.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RatingRollupRepository extends JpaRepository<RatingRollup, RatingRollupId>, RatingRollupRepositoryCustom {
+    @Query("SELECT r FROM RatingRollup r WHERE r.id.pokemonId = :pokemonId AND r.id.granularity = :granularity "
+            + "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart")
+    List<RatingRollup> findHistory(int pokemonId, RollupGranularity granularity, Instant from, Instant to);
+
+    @Query("SELECT r FROM RatingRollup r WHERE r.id.granularity = :granularity AND r.id.bucketStart >= :from")
+    List<RatingRollup> findAllSince(RollupGranularity granularity, Instant from);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RatingRollup r WHERE r.id.pokemonId = :pokemonId")
+    int deleteByPokemonId(int pokemonId);
+}
@@ -0,0 +1,12 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.RollupGranularity;
+
+import java.time.Instant;
+
+public interface RatingRollupRepositoryCustom {
+    /**
+     * Adds the deltas to a bucket in a single statement, creating the row when it does not exist yet.
+     */
+    void increment(int pokemonId, RollupGranularity granularity, Instant bucketStart, long reviewCount, long starsTotal);
+}
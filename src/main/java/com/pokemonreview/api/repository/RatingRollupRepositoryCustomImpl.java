@@ -0,0 +1,75 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.RollupGranularity;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+public class RatingRollupRepositoryCustomImpl implements RatingRollupRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO rating_rollup "
+            + "(pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (pokemon_id, granularity, bucket_start) DO UPDATE SET "
+            + "review_count = rating_rollup.review_count + EXCLUDED.review_count, "
+            + "stars_total = rating_rollup.stars_total + EXCLUDED.stars_total";
+
+    // H2 has no ON CONFLICT ... DO UPDATE, but understands the standard MERGE; unlike ON CONFLICT it is not atomic, so
+    // two transactions inserting the same new bucket make the later one fail with a unique violation
+    private static final String STANDARD_UPSERT = "MERGE INTO rating_rollup t USING (VALUES ("
+            + "CAST(? AS INTEGER), CAST(? AS VARCHAR(8)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT), CAST(? AS BIGINT))) "
+            + "AS s (pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "ON t.pokemon_id = s.pokemon_id AND t.granularity = s.granularity AND t.bucket_start = s.bucket_start "
+            + "WHEN MATCHED THEN UPDATE SET review_count = t.review_count + s.review_count, "
+            + "stars_total = t.stars_total + s.stars_total "
+            + "WHEN NOT MATCHED THEN INSERT (pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "VALUES (s.pokemon_id, s.granularity, s.bucket_start, s.review_count, s.stars_total)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private volatile String upsert;
+
+    // plain JDBC, so a unique violation can be retried without Hibernate marking the transaction rollback-only; by then
+    // the other transaction has committed the bucket and the retry adds to it
+    @Override
+    public void increment(int pokemonId, RollupGranularity granularity, Instant bucketStart, long reviewCount, long starsTotal) {
+        String sql = upsert();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (int attempt = 1; ; attempt++) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setInt(1, pokemonId);
+                    statement.setString(2, granularity.name());
+                    statement.setTimestamp(3, Timestamp.from(bucketStart));
+                    statement.setLong(4, reviewCount);
+                    statement.setLong(5, starsTotal);
+                    statement.executeUpdate();
+                    return;
+                } catch (SQLException ex) {
+                    if (POSTGRES_UPSERT.equals(sql) || !UNIQUE_VIOLATION.equals(ex.getSQLState()) || attempt == MAX_ATTEMPTS) {
+                        throw ex;
+                    }
+                }
+            }
+        });
+    }
+
+    // primary and shards run the same database product, so the first connection decides for all of them
+    private String upsert() {
+        String sql = upsert;
+        if (sql == null) {
+            String product = entityManager.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            sql = "PostgreSQL".equals(product) ? POSTGRES_UPSERT : STANDARD_UPSERT;
+            upsert = sql;
+        }
+        return sql;
+    }
+}
@@ -2,10 +2,54 @@ package com.pokemonreview.api.repository;
 
 import com.pokemonreview.api.models.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 
-public interface ReviewRepository extends JpaRepository<Review, Integer> {
+public interface ReviewRepository extends JpaRepository<Review, Integer>, ReviewRepositoryCustom {
+    // explicit queries: the derived ones left-join pokemon just to compare its id with the foreign key, and
+    // review shards have no pokemon table to join
+    @Query("select r from Review r where r.pokemon.id = :pokemonId")
     List<Review> findByPokemonId(int pokemonId);
+
+    @Query("select r from Review r where r.pokemon.id in :pokemonIds")
+    List<Review> findByPokemonIdIn(Collection<Integer> pokemonIds);
+
+    /**
+     * Review count and star total per pokemon, as {@code [pokemonId, count, stars]} rows.
+     */
+    @Query("select r.pokemon.id, count(r), sum(r.stars) from Review r group by r.pokemon.id")
+    List<Object[]> countAndSumStarsByPokemonId();
+
+    /**
+     * One {@code [count, highest id, version total, star total, pokemon id total, pokemon id times stars total]} row.
+     */
+    @Query("select count(r), coalesce(max(r.id), 0), coalesce(sum(r.version), 0), coalesce(sum(r.stars), 0), "
+            + "coalesce(sum(r.pokemon.id), 0), coalesce(sum(r.pokemon.id * r.stars), 0) from Review r")
+    List<Object[]> aggregate();
+
+    /**
+     * Reads a review's stars and locks the row until the transaction ends, so a following bulk update knows the value
+     * it replaces; {@code null} when the review does not belong to the pokemon.
+     */
+    @Query(value = "SELECT stars FROM review WHERE id = :reviewId AND pokemon_id = :pokemonId FOR UPDATE", nativeQuery = true)
+    Integer findStarsForUpdate(int pokemonId, int reviewId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM review WHERE id IN (SELECT id FROM review WHERE pokemon_id = :pokemonId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByPokemonId(int pokemonId, int limit);
+
+    /**
+     * Returns at most {@code limit} reviews per pokemon, lowest ids first, for all given pokemon in one statement.
+     */
+    @Query(value = "SELECT id, title, content, stars, pokemon_id, version, created_at, updated_at FROM ("
+            + "SELECT r.*, ROW_NUMBER() OVER (PARTITION BY r.pokemon_id ORDER BY r.id) AS rn "
+            + "FROM review r WHERE r.pokemon_id IN (:pokemonIds)) ranked "
+            + "WHERE rn <= :limit ORDER BY pokemon_id, id", nativeQuery = true)
+    List<Review> findFirstReviewsByPokemonIdIn(Collection<Integer> pokemonIds, int limit);
 }
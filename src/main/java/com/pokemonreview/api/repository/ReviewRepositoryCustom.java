@@ -0,0 +1,21 @@
+package com.pokemonreview.api.repository;
+
+import javax.persistence.Tuple;
+import java.util.List;
+import java.util.Set;
+
+public interface ReviewRepositoryCustom {
+    /**
+     * Applies the non-null arguments in a single UPDATE statement and bumps the version.
+     * When {@code expectedVersion} is given the row is only updated if its version still matches.
+     *
+     * @return the number of updated rows
+     */
+    int patch(int pokemonId, int reviewId, String title, String content, Integer stars, Integer expectedVersion);
+
+    /**
+     * Selects only the given attributes of a pokemon's reviews. Each tuple element is aliased with its attribute name;
+     * {@code pokemonId} reads the foreign key column without joining pokemon.
+     */
+    List<Tuple> findFieldsByPokemonId(int pokemonId, Set<String> fields);
+}
@@ -0,0 +1,72 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.Review;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patch(int pokemonId, int reviewId, String title, String content, Integer stars, Integer expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Review> update = cb.createCriteriaUpdate(Review.class);
+        Root<Review> root = update.from(Review.class);
+
+        if (title != null) {
+            update.set(root.<String>get("title"), title);
+        }
+        if (content != null) {
+            update.set(root.<String>get("content"), content);
+        }
+        if (stars != null) {
+            update.set(root.<Integer>get("stars"), stars);
+        }
+        update.set(root.<Integer>get("version"), cb.sum(root.<Integer>get("version"), 1));
+        update.set(root.<Instant>get("updatedAt"), Instant.now());
+
+        Predicate where = cb.and(
+                cb.equal(root.get("id"), reviewId),
+                cb.equal(root.get("pokemon").get("id"), pokemonId));
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(where);
+
+        // same as @Modifying(flushAutomatically = true, clearAutomatically = true): the bulk update bypasses
+        // the persistence context, so pending changes go first and stale entities are dropped afterwards
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public List<Tuple> findFieldsByPokemonId(int pokemonId, Set<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Review> root = query.from(Review.class);
+        query.multiselect(fields.stream().map(field -> path(root, field).alias(field)).collect(Collectors.toList()));
+        query.where(cb.equal(root.get("pokemon").get("id"), cb.parameter(Integer.class, "pokemonId")));
+
+        return entityManager.createQuery(query).setParameter("pokemonId", pokemonId).getResultList();
+    }
+
+    private static Path<Object> path(Root<Review> root, String field) {
+        return "pokemonId".equals(field) ? root.get("pokemon").get("id") : root.get(field);
+    }
+}
@@ -2,10 +2,15 @@ package com.pokemonreview.api.repository;
 
 import com.pokemonreview.api.models.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Integer> {
     Optional<UserEntity> findByUsername(String username);
     Boolean existsByUsername(String username);
+
+    @Query("select u.username from UserEntity u")
+    List<String> findAllUsernames();
 }
@@ -0,0 +1,40 @@
+package com.pokemonreview.api.retry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// ordered ahead of the transaction interceptor so every attempt runs in a fresh transaction
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= retryOnConflict.maxAttempts()) {
+                    throw ex;
+                }
+                backoff(retryOnConflict.backoffMillis() * attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis));
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.dto.PokemonBatchResponse;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
 
 import java.util.List;
+import java.util.Set;
 
 public interface PokemonService {
     PokemonDto createPokemon(PokemonDto pokemonDto);
     PokemonResponse getAllPokemon(int pageNo, int pageSize);
+    PokemonResponse getAllPokemon(int pageNo, int pageSize, Set<String> fields);
+    PokemonResponse getAllPokemonWithReviews(int pageNo, int pageSize, int reviewLimit);
     PokemonDto getPokemonById(int id);
+    PokemonBatchResponse getPokemonByIds(List<Integer> ids);
     PokemonDto updatePokemon(PokemonDto pokemonDto, int id);
+    PokemonDto patchPokemon(PokemonDto pokemonDto, int id);
     void deletePokemonId(int id);
 }
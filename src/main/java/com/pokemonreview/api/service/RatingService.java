@@ -0,0 +1,13 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.dto.RatingBucketDto;
+import com.pokemonreview.api.dto.TrendingPokemonDto;
+import com.pokemonreview.api.models.RollupGranularity;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RatingService {
+    List<RatingBucketDto> getRatingHistory(int pokemonId, RollupGranularity granularity, Instant from, Instant to);
+    List<TrendingPokemonDto> getTrending(int windowHours, int limit);
+}
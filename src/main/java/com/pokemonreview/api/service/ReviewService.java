@@ -1,13 +1,19 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.dto.ReviewBatchResponse;
 import com.pokemonreview.api.dto.ReviewDto;
 
 import java.util.List;
+import java.util.Set;
 
 public interface ReviewService {
     ReviewDto createReview(int pokemonId, ReviewDto reviewDto);
+    List<ReviewDto> createReviews(List<ReviewDto> reviewDtos);
     List<ReviewDto> getReviewsByPokemonId(int id);
+    List<ReviewDto> getReviewsByPokemonId(int id, Set<String> fields);
+    ReviewBatchResponse getReviewsByPokemonIds(List<Integer> pokemonIds);
     ReviewDto getReviewById(int reviewId, int pokemonId);
     ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto);
+    ReviewDto patchReview(int pokemonId, int reviewId, ReviewDto reviewDto);
     void deleteReview(int pokemonId, int reviewId);
 }
@@ -0,0 +1,25 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.exceptions.BatchTooLargeException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Drops duplicate ids, keeping the first occurrence so results can follow the request order, and rejects
+     * batches above {@code maxSize} distinct ids.
+     */
+    static Set<Integer> distinct(List<Integer> ids, int maxSize) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > maxSize) {
+            throw new BatchTooLargeException("At most " + maxSize + " ids can be requested at once, got " + distinct.size());
+        }
+        return distinct;
+    }
+}
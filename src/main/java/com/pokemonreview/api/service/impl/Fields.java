@@ -0,0 +1,25 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.exceptions.InvalidFieldException;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+final class Fields {
+
+    private Fields() {
+    }
+
+    /**
+     * Returns {@code fields} unchanged if every entry is one of {@code allowed}; field names end up in the select
+     * clause, so anything else is rejected before a query is built.
+     */
+    static Set<String> check(Set<String> fields, Set<String> allowed) {
+        for (String field : fields) {
+            if (!allowed.contains(field)) {
+                throw new InvalidFieldException("Unknown field '" + field + "', expected any of " + new TreeSet<>(allowed));
+            }
+        }
+        return fields;
+    }
+}
@@ -1,51 +1,145 @@
 package com.pokemonreview.api.service.impl;
 
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.PokemonBatchResponse;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import com.pokemonreview.api.mapper.PokemonMapper;
+import com.pokemonreview.api.mapper.ReviewMapper;
+import com.pokemonreview.api.models.ChangeType;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.reference.PokemonTypeDictionary;
 import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.retry.RetryOnConflict;
 import com.pokemonreview.api.service.PokemonService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class PokemonServiceImpl implements PokemonService {
+    private static final Logger log = LoggerFactory.getLogger(PokemonServiceImpl.class);
+
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
     private PokemonRepository pokemonRepository;
+    private ReviewRepository reviewRepository;
+    private RatingRollupRepository ratingRollupRepository;
+    private ShardTemplate shardTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private PokemonTypeDictionary pokemonTypes;
+    private PokemonMapper pokemonMapper = PokemonMapper.INSTANCE;
+    private ReviewMapper reviewMapper = ReviewMapper.INSTANCE;
+
+    @Value("${app.pokemon.delete.chunk-size:1000}")
+    private int deleteChunkSize = 1000;
+
+    @Value("${app.batch.max-size:100}")
+    private int batchMaxSize = 100;
+
+    @Value("${app.pokemon.review-limit.max:20}")
+    private int maxReviewLimit = 20;
 
     @Autowired
-    public PokemonServiceImpl(PokemonRepository pokemonRepository) {
+    public PokemonServiceImpl(PokemonRepository pokemonRepository, ReviewRepository reviewRepository,
+                              RatingRollupRepository ratingRollupRepository, ShardTemplate shardTemplate,
+                              ApplicationEventPublisher eventPublisher, PokemonTypeDictionary pokemonTypes) {
         this.pokemonRepository = pokemonRepository;
+        this.reviewRepository = reviewRepository;
+        this.ratingRollupRepository = ratingRollupRepository;
+        this.shardTemplate = shardTemplate;
+        this.eventPublisher = eventPublisher;
+        this.pokemonTypes = pokemonTypes;
     }
 
     @Override
+    @Transactional
     public PokemonDto createPokemon(PokemonDto pokemonDto) {
-        Pokemon pokemon = new Pokemon();
-        pokemon.setName(pokemonDto.getName());
-        pokemon.setType(pokemonDto.getType());
-
+        // new types are added before the insert, on a connection of their own rather than during the flush
+        Pokemon pokemon = pokemonMapper.toEntity(pokemonDto);
+        pokemon.setType(pokemonTypes.intern(pokemon.getType()));
         Pokemon newPokemon = pokemonRepository.save(pokemon);
-
-        PokemonDto pokemonResponse = new PokemonDto();
-        pokemonResponse.setId(newPokemon.getId());
-        pokemonResponse.setName(newPokemon.getName());
-        pokemonResponse.setType(newPokemon.getType());
-        return pokemonResponse;
+        PokemonDto created = pokemonMapper.toDto(newPokemon);
+        eventPublisher.publishEvent(EntityChangedEvent.pokemon(ChangeType.CREATED, created.getId(), created));
+        return created;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PokemonResponse getAllPokemon(int pageNo, int pageSize) {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
         Page<Pokemon> pokemons = pokemonRepository.findAll(pageable);
         List<Pokemon> listOfPokemon = pokemons.getContent();
-        List<PokemonDto> content = listOfPokemon.stream().map(p -> mapToDto(p)).collect(Collectors.toList());
+        List<PokemonDto> content = listOfPokemon.stream().map(pokemonMapper::toDto).collect(Collectors.toList());
+
+        return toResponse(pokemons, content);
+    }
+
+    /**
+     * Reads only the requested columns and leaves the other dto fields null, so they are not serialized either.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PokemonResponse getAllPokemon(int pageNo, int pageSize, Set<String> fields) {
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Page<Tuple> pokemons = pokemonRepository.findAllFields(Fields.check(fields, PokemonMapper.FIELDS), pageable);
+        List<PokemonDto> content = pokemons.getContent().stream().map(pokemonMapper::toDto).collect(Collectors.toList());
+
+        return toResponse(pokemons, content);
+    }
+
+    /**
+     * Embeds up to {@code reviewLimit} reviews (capped at {@code app.pokemon.review-limit.max}) in every pokemon of
+     * the page. Runs at most three statements whatever the page size: the page, its count, and one windowed query
+     * for the reviews of all pokemon on the page (one per shard when reviews are sharded). The lazy
+     * {@code Pokemon.reviews} collection is never touched.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PokemonResponse getAllPokemonWithReviews(int pageNo, int pageSize, int reviewLimit) {
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Page<Pokemon> pokemons = pokemonRepository.findAll(pageable);
+        List<PokemonDto> content = pokemons.getContent().stream().map(pokemonMapper::toDto).collect(Collectors.toList());
+
+        Map<Integer, List<ReviewDto>> reviews = new HashMap<>();
+        int limit = Math.min(reviewLimit, maxReviewLimit);
+        if (!content.isEmpty() && limit > 0) {
+            List<Integer> ids = content.stream().map(PokemonDto::getId).collect(Collectors.toList());
+            List<ReviewDto> found = shardTemplate.readAll(ids, shardIds -> reviewRepository.findFirstReviewsByPokemonIdIn(shardIds, limit)
+                    .stream().map(reviewMapper::toDto).collect(Collectors.toList()));
+            for (ReviewDto review : found) {
+                reviews.computeIfAbsent(review.getPokemonId(), id -> new ArrayList<>()).add(review);
+            }
+        }
+        content.forEach(pokemonDto -> pokemonDto.setReviews(reviews.getOrDefault(pokemonDto.getId(), new ArrayList<>())));
+
+        return toResponse(pokemons, content);
+    }
 
+    private PokemonResponse toResponse(Page<?> pokemons, List<PokemonDto> content) {
         PokemonResponse pokemonResponse = new PokemonResponse();
         pokemonResponse.setContent(content);
         pokemonResponse.setPageNo(pokemons.getNumber());
@@ -58,40 +152,119 @@ public class PokemonServiceImpl implements PokemonService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PokemonDto getPokemonById(int id) {
         Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be found"));
-        return mapToDto(pokemon);
+        return pokemonMapper.toDto(pokemon);
+    }
+
+    /**
+     * Resolves all ids with one IN query. The content follows the order of the requested ids, and ids without a
+     * pokemon are listed in {@code missingIds} instead of failing the whole batch.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PokemonBatchResponse getPokemonByIds(List<Integer> ids) {
+        Set<Integer> requested = Batches.distinct(ids, batchMaxSize);
+        Map<Integer, Pokemon> found = pokemonRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Pokemon::getId, pokemon -> pokemon));
+
+        List<PokemonDto> content = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : requested) {
+            Pokemon pokemon = found.get(id);
+            if (pokemon != null) {
+                content.add(pokemonMapper.toDto(pokemon));
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return PokemonBatchResponse.builder().content(content).missingIds(missingIds).build();
     }
 
     @Override
+    @Transactional
+    @RetryOnConflict
     public PokemonDto updatePokemon(PokemonDto pokemonDto, int id) {
         Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be updated"));
 
+        if (pokemonDto.getVersion() != null && pokemonDto.getVersion() != pokemon.getVersion()) {
+            throw new VersionMismatchException("Pokemon was modified by another request");
+        }
+
         pokemon.setName(pokemonDto.getName());
-        pokemon.setType(pokemonDto.getType());
+        pokemon.setType(pokemonTypes.intern(pokemonDto.getType()));
 
-        Pokemon updatedPokemon = pokemonRepository.save(pokemon);
-        return mapToDto(updatedPokemon);
+        // flushed so the returned dto and the change event carry the incremented version
+        Pokemon updatedPokemon = pokemonRepository.saveAndFlush(pokemon);
+        PokemonDto updated = pokemonMapper.toDto(updatedPokemon);
+        eventPublisher.publishEvent(EntityChangedEvent.pokemon(ChangeType.UPDATED, id, updated));
+        return updated;
     }
 
     @Override
-    public void deletePokemonId(int id) {
-        Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be delete"));
-        pokemonRepository.delete(pokemon);
+    @Transactional
+    public PokemonDto patchPokemon(PokemonDto pokemonDto, int id) {
+        int updated = pokemonRepository.patch(id, pokemonDto.getName(), pokemonTypes.intern(pokemonDto.getType()),
+                pokemonDto.getVersion());
+        if (updated == 0) {
+            if (!pokemonRepository.existsById(id)) {
+                throw new PokemonNotFoundException("Pokemon could not be updated");
+            }
+            throw new VersionMismatchException("Pokemon was modified by another request");
+        }
+
+        Pokemon pokemon = pokemonRepository.findById(id).orElseThrow(() -> new PokemonNotFoundException("Pokemon could not be updated"));
+        PokemonDto patched = pokemonMapper.toDto(pokemon);
+        eventPublisher.publishEvent(EntityChangedEvent.pokemon(ChangeType.UPDATED, id, patched));
+        return patched;
     }
 
-    private PokemonDto mapToDto(Pokemon pokemon) {
-        PokemonDto pokemonDto = new PokemonDto();
-        pokemonDto.setId(pokemon.getId());
-        pokemonDto.setName(pokemon.getName());
-        pokemonDto.setType(pokemon.getType());
-        return pokemonDto;
+    /**
+     * Deletes the reviews with set-based DELETE statements of at most {@code deleteChunkSize} rows, each in its own
+     * short transaction, and then the pokemon itself. No entities are loaded. Only the pokemon's deletion is published
+     * as a change event; consumers drop its reviews with it. A review added after the last chunk makes the pokemon's
+     * deletion fail on the foreign key; the reviews are then deleted again, up to {@code MAX_DELETE_ATTEMPTS} times.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void deletePokemonId(int id) {
+        if (!pokemonRepository.existsById(id)) {
+            throw new PokemonNotFoundException("Pokemon could not be delete");
+        }
+
+        int deletedReviews = 0;
+        for (int attempt = 1; ; attempt++) {
+            deletedReviews += deleteReviews(id, deletedReviews);
+            try {
+                shardTemplate.writePrimary(() -> {
+                    pokemonRepository.bulkDeleteById(id);
+                    eventPublisher.publishEvent(EntityChangedEvent.pokemon(ChangeType.DELETED, id, null));
+                    return null;
+                });
+                break;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_DELETE_ATTEMPTS) {
+                    throw ex;
+                }
+                log.info("Deleting pokemon {}: reviews were added meanwhile, deleting them again", id);
+            }
+        }
+        log.info("Deleted pokemon {} and {} reviews", id, deletedReviews);
     }
 
-    private Pokemon mapToEntity(PokemonDto pokemonDto) {
-        Pokemon pokemon = new Pokemon();
-        pokemon.setName(pokemonDto.getName());
-        pokemon.setType(pokemonDto.getType());
-        return pokemon;
+    private int deleteReviews(int id, int deletedBefore) {
+        int deletedReviews = 0;
+        int deleted;
+        do {
+            deleted = shardTemplate.write(id, () -> reviewRepository.deleteChunkByPokemonId(id, deleteChunkSize));
+            deletedReviews += deleted;
+            if (deleted > 0) {
+                log.info("Deleting pokemon {}: {} reviews removed so far", id, deletedBefore + deletedReviews);
+            }
+        } while (deleted >= deleteChunkSize);
+        shardTemplate.write(id, () -> ratingRollupRepository.deleteByPokemonId(id));
+        return deletedReviews;
     }
 }
@@ -0,0 +1,133 @@
+package com.pokemonreview.api.service.impl;
+
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.RatingBucketDto;
+import com.pokemonreview.api.dto.TrendingPokemonDto;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.RatingRollup;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import com.pokemonreview.api.service.RatingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers rating history and trending queries from the hourly and daily rollups, never from the review table.
+ */
+@Service
+public class RatingServiceImpl implements RatingService {
+    private PokemonRepository pokemonRepository;
+    private RatingRollupRepository ratingRollupRepository;
+    private ShardTemplate shardTemplate;
+
+    @Value("${app.ratings.history.max-buckets:1000}")
+    private int maxHistoryBuckets = 1000;
+
+    @Value("${app.ratings.trending.half-life-hours:6}")
+    private double halfLifeHours = 6;
+
+    @Autowired
+    public RatingServiceImpl(PokemonRepository pokemonRepository, RatingRollupRepository ratingRollupRepository,
+                             ShardTemplate shardTemplate) {
+        this.pokemonRepository = pokemonRepository;
+        this.ratingRollupRepository = ratingRollupRepository;
+        this.shardTemplate = shardTemplate;
+    }
+
+    /**
+     * Returns the non-empty buckets starting in {@code [from, to)}. Without {@code to} the range ends after the
+     * current bucket; without {@code from} it covers the last 48 hours or 30 days.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RatingBucketDto> getRatingHistory(int pokemonId, RollupGranularity granularity, Instant from, Instant to) {
+        if (!pokemonRepository.existsById(pokemonId)) {
+            throw new PokemonNotFoundException("Pokemon could not be found");
+        }
+
+        Instant end = to != null ? to : granularity.bucketOf(Instant.now()).plus(1, granularity.getUnit());
+        Instant start = from != null ? from : end.minus(granularity == RollupGranularity.HOUR ? Duration.ofHours(48) : Duration.ofDays(30));
+        if (!start.isBefore(end)) {
+            throw new InvalidFieldException("from must be before to");
+        }
+        if (granularity.getUnit().between(start, end) > maxHistoryBuckets) {
+            throw new InvalidFieldException("At most " + maxHistoryBuckets + " buckets can be requested at once");
+        }
+
+        return shardTemplate.read(pokemonId, () -> ratingRollupRepository.findHistory(pokemonId, granularity, start, end)).stream()
+                .filter(rollup -> rollup.getReviewCount() > 0)
+                .map(rollup -> RatingBucketDto.builder()
+                        .bucketStart(rollup.getId().getBucketStart())
+                        .reviewCount(rollup.getReviewCount())
+                        .averageStars((double) rollup.getStarsTotal() / rollup.getReviewCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ranks pokemon by the reviews created within the last {@code windowHours}, each hour's reviews weighing half as
+     * much for every {@code app.ratings.trending.half-life-hours} of age, so a burst of recent reviews outranks a
+     * larger but older one.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrendingPokemonDto> getTrending(int windowHours, int limit) {
+        Instant now = Instant.now();
+        Instant since = RollupGranularity.HOUR.bucketOf(now.minus(Duration.ofHours(windowHours)));
+        List<RatingRollup> rollups = shardTemplate.readEach(() -> ratingRollupRepository.findAllSince(RollupGranularity.HOUR, since));
+
+        Map<Integer, double[]> totals = new HashMap<>();
+        for (RatingRollup rollup : rollups) {
+            if (rollup.getReviewCount() <= 0) {
+                continue;
+            }
+            // weighted from the middle of the hour; the current hour is not in the future
+            Instant middle = rollup.getId().getBucketStart().plus(Duration.ofMinutes(30));
+            double ageHours = Math.max(0, Duration.between(middle, now).toMillis() / 3_600_000.0);
+            double[] total = totals.computeIfAbsent(rollup.getId().getPokemonId(), id -> new double[2]);
+            total[0] += rollup.getReviewCount();
+            total[1] += rollup.getReviewCount() * Math.pow(0.5, ageHours / halfLifeHours);
+        }
+
+        List<Map.Entry<Integer, double[]>> ranked = totals.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, double[]>>comparingDouble(entry -> -entry.getValue()[1])
+                        .thenComparing(Map.Entry::getKey))
+                .collect(Collectors.toList());
+
+        // rollups of a pokemon deleted moments ago may still be around, so names are looked up and misses skipped
+        List<TrendingPokemonDto> trending = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int from = 0; from < ranked.size() && trending.size() < limit; from += limit) {
+            List<Map.Entry<Integer, double[]>> page = ranked.subList(from, Math.min(from + limit, ranked.size()));
+            Map<Integer, Pokemon> pokemon = pokemonRepository.findAllById(page.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+                    .stream().collect(Collectors.toMap(Pokemon::getId, Function.identity()));
+            for (Map.Entry<Integer, double[]> entry : page) {
+                Pokemon found = pokemon.get(entry.getKey());
+                if (found != null && trending.size() < limit) {
+                    trending.add(TrendingPokemonDto.builder()
+                            .rank(trending.size() + 1)
+                            .pokemonId(found.getId())
+                            .name(found.getName())
+                            .reviewCount((long) entry.getValue()[0])
+                            .score(entry.getValue()[1])
+                            .build());
+                }
+            }
+        }
+        return trending;
+    }
+}
@@ -1,112 +1,267 @@
 package com.pokemonreview.api.service.impl;
 
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.ReviewBatchResponse;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.events.ReviewRatingChangedEvent;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
 import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import com.pokemonreview.api.mapper.ReviewMapper;
+import com.pokemonreview.api.models.ChangeType;
 import com.pokemonreview.api.models.Pokemon;
 import com.pokemonreview.api.models.Review;
 import com.pokemonreview.api.repository.PokemonRepository;
 import com.pokemonreview.api.repository.ReviewRepository;
+import com.pokemonreview.api.retry.RetryOnConflict;
 import com.pokemonreview.api.service.PokemonService;
 import com.pokemonreview.api.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
     private ReviewRepository reviewRepository;
     private PokemonRepository pokemonRepository;
+    private ShardTemplate shardTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private ReviewMapper reviewMapper = ReviewMapper.INSTANCE;
+
+    @Value("${app.batch.max-size:100}")
+    private int batchMaxSize = 100;
 
     @Autowired
-    public ReviewServiceImpl(ReviewRepository reviewRepository, PokemonRepository pokemonRepository) {
+    public ReviewServiceImpl(ReviewRepository reviewRepository, PokemonRepository pokemonRepository, ShardTemplate shardTemplate,
+                             ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.pokemonRepository = pokemonRepository;
+        this.shardTemplate = shardTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public ReviewDto createReview(int pokemonId, ReviewDto reviewDto) {
-        Review review = mapToEntity(reviewDto);
+        Review review = reviewMapper.toEntity(reviewDto);
+        review.setCreatedAt(Instant.now());
+        review.setUpdatedAt(review.getCreatedAt());
 
         Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
 
         review.setPokemon(pokemon);
 
-        Review newReview = reviewRepository.save(review);
+        // published inside the shard callback so the outbox row is written on the review's shard, in its transaction
+        return shardTemplate.write(pokemonId, () -> {
+            ReviewDto created = reviewMapper.toDto(reviewRepository.save(review));
+            eventPublisher.publishEvent(EntityChangedEvent.review(ChangeType.CREATED, pokemonId, created.getId(), created));
+            eventPublisher.publishEvent(ReviewRatingChangedEvent.created(pokemonId, created.getStars(), created.getCreatedAt()));
+            return created;
+        });
+    }
+
+    /**
+     * Saves reviews of many pokemon with one transaction per shard, taking each review's pokemon from its
+     * {@code pokemonId}. Reviews of pokemon that no longer exist are skipped.
+     */
+    @Override
+    @Transactional
+    public List<ReviewDto> createReviews(List<ReviewDto> reviewDtos) {
+        Set<Integer> pokemonIds = reviewDtos.stream().map(ReviewDto::getPokemonId).collect(Collectors.toSet());
+        Map<Integer, Pokemon> pokemon = pokemonRepository.findAllById(pokemonIds).stream()
+                .collect(Collectors.toMap(Pokemon::getId, Function.identity()));
+
+        return shardTemplate.writeAll(pokemon.keySet(), ids -> {
+            Set<Integer> owned = new HashSet<>(ids);
+            List<Review> reviews = new ArrayList<>();
+            Instant now = Instant.now();
+            for (ReviewDto reviewDto : reviewDtos) {
+                if (owned.contains(reviewDto.getPokemonId())) {
+                    Review review = reviewMapper.toEntity(reviewDto);
+                    review.setPokemon(pokemon.get(reviewDto.getPokemonId()));
+                    review.setCreatedAt(now);
+                    review.setUpdatedAt(now);
+                    reviews.add(review);
+                }
+            }
 
-        return mapToDto(newReview);
+            List<ReviewDto> created = new ArrayList<>();
+            for (Review review : reviewRepository.saveAll(reviews)) {
+                ReviewDto createdReview = reviewMapper.toDto(review);
+                eventPublisher.publishEvent(EntityChangedEvent.review(ChangeType.CREATED, createdReview.getPokemonId(),
+                        createdReview.getId(), createdReview));
+                eventPublisher.publishEvent(ReviewRatingChangedEvent.created(createdReview.getPokemonId(), createdReview.getStars(),
+                        createdReview.getCreatedAt()));
+                created.add(createdReview);
+            }
+            return created;
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDto> getReviewsByPokemonId(int id) {
-        List<Review> reviews = reviewRepository.findByPokemonId(id);
+        return shardTemplate.read(id, () -> reviewRepository.findByPokemonId(id).stream()
+                .map(reviewMapper::toDto).collect(Collectors.toList()));
+    }
+
+    /**
+     * Reads only the requested columns and leaves the other dto fields null, so they are not serialized either.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReviewDto> getReviewsByPokemonId(int id, Set<String> fields) {
+        Set<String> checked = Fields.check(fields, ReviewMapper.FIELDS);
 
-        return reviews.stream().map(review -> mapToDto(review)).collect(Collectors.toList());
+        return shardTemplate.read(id, () -> reviewRepository.findFieldsByPokemonId(id, checked).stream()
+                .map(reviewMapper::toDto).collect(Collectors.toList()));
     }
 
+    /**
+     * Loads the reviews of all requested pokemon with one IN query per shard and groups them by pokemon id in request
+     * order. Existing pokemon without reviews map to an empty list; ids without a pokemon are listed in
+     * {@code missingPokemonIds}.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public ReviewBatchResponse getReviewsByPokemonIds(List<Integer> pokemonIds) {
+        Set<Integer> requested = Batches.distinct(pokemonIds, batchMaxSize);
+        Set<Integer> existing = new HashSet<>(pokemonRepository.findIdsByIdIn(requested));
+
+        Map<Integer, List<ReviewDto>> reviews = new LinkedHashMap<>();
+        List<Integer> missingPokemonIds = new ArrayList<>();
+        for (Integer id : requested) {
+            if (existing.contains(id)) {
+                reviews.put(id, new ArrayList<>());
+            } else {
+                missingPokemonIds.add(id);
+            }
+        }
+        if (!reviews.isEmpty()) {
+            List<ReviewDto> found = shardTemplate.readAll(reviews.keySet(), ids -> reviewRepository.findByPokemonIdIn(ids).stream()
+                    .map(reviewMapper::toDto).collect(Collectors.toList()));
+            for (ReviewDto review : found) {
+                reviews.get(review.getPokemonId()).add(review);
+            }
+        }
+
+        return ReviewBatchResponse.builder().reviews(reviews).missingPokemonIds(missingPokemonIds).build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public ReviewDto getReviewById(int reviewId, int pokemonId) {
         Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+        return shardTemplate.read(pokemonId, () -> {
+            Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
 
-        if (review.getPokemon().getId() != pokemon.getId()) {
-            throw new ReviewNotFoundException("This review does not belong to a pokemon");
-        }
+            if (review.getPokemon().getId() != pokemon.getId()) {
+                throw new ReviewNotFoundException("This review does not belong to a pokemon");
+            }
 
-        return mapToDto(review);
+            return reviewMapper.toDto(review);
+        });
     }
 
     @Override
+    @Transactional
+    @RetryOnConflict
     public ReviewDto updateReview(int pokemonId, int reviewId, ReviewDto reviewDto) {
         Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+        return shardTemplate.write(pokemonId, () -> {
+            Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
 
-        if (review.getPokemon().getId() != pokemon.getId()) {
-            throw new ReviewNotFoundException("This review does not belong to a pokemon");
-        }
+            if (review.getPokemon().getId() != pokemon.getId()) {
+                throw new ReviewNotFoundException("This review does not belong to a pokemon");
+            }
 
-        review.setTitle(reviewDto.getTitle());
-        review.setContent(reviewDto.getContent());
-        review.setStars(reviewDto.getStars());
+            if (reviewDto.getVersion() != null && reviewDto.getVersion() != review.getVersion()) {
+                throw new VersionMismatchException("Review was modified by another request");
+            }
 
-        Review updateReview = reviewRepository.save(review);
+            int oldStars = review.getStars();
+            review.setTitle(reviewDto.getTitle());
+            review.setContent(reviewDto.getContent());
+            review.setStars(reviewDto.getStars() == null ? 0 : reviewDto.getStars());
+            review.setUpdatedAt(Instant.now());
 
-        return mapToDto(updateReview);
+            // flushed so the returned dto, its ETag and the change event carry the incremented version
+            Review updateReview = reviewRepository.saveAndFlush(review);
+
+            ReviewDto updated = reviewMapper.toDto(updateReview);
+            eventPublisher.publishEvent(EntityChangedEvent.review(ChangeType.UPDATED, pokemonId, reviewId, updated));
+            eventPublisher.publishEvent(ReviewRatingChangedEvent.updated(pokemonId, oldStars, updated.getStars(), updated.getCreatedAt()));
+            return updated;
+        });
     }
 
     @Override
-    public void deleteReview(int pokemonId, int reviewId) {
+    @Transactional
+    public ReviewDto patchReview(int pokemonId, int reviewId, ReviewDto reviewDto) {
+        ReviewDto patched = shardTemplate.write(pokemonId, () -> {
+            // the bulk update does not return the stars it replaces, so read them first and keep the row locked
+            Integer oldStars = reviewDto.getStars() == null ? null : reviewRepository.findStarsForUpdate(pokemonId, reviewId);
+            int updated = reviewRepository.patch(pokemonId, reviewId, reviewDto.getTitle(), reviewDto.getContent(),
+                    reviewDto.getStars(), reviewDto.getVersion());
+            if (updated == 0) {
+                return null;
+            }
+
+            Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+            ReviewDto patchedReview = reviewMapper.toDto(review);
+            eventPublisher.publishEvent(EntityChangedEvent.review(ChangeType.UPDATED, pokemonId, reviewId, patchedReview));
+            if (oldStars != null) {
+                eventPublisher.publishEvent(ReviewRatingChangedEvent.updated(pokemonId, oldStars, patchedReview.getStars(),
+                        patchedReview.getCreatedAt()));
+            }
+            return patchedReview;
+        });
+        if (patched != null) {
+            return patched;
+        }
+
         Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
 
-        Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+        Review review = shardTemplate.read(pokemonId, () -> reviewRepository.findById(reviewId))
+                .orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
 
         if (review.getPokemon().getId() != pokemon.getId()) {
             throw new ReviewNotFoundException("This review does not belong to a pokemon");
         }
-
-        reviewRepository.delete(review);
+        throw new VersionMismatchException("Review was modified by another request");
     }
 
-    private ReviewDto mapToDto(Review review) {
-        ReviewDto reviewDto = new ReviewDto();
-        reviewDto.setId(review.getId());
-        reviewDto.setTitle(review.getTitle());
-        reviewDto.setContent(review.getContent());
-        reviewDto.setStars(review.getStars());
-        reviewDto.setPokemonId(review.getPokemon().getId());
-        return reviewDto;
-    }
+    @Override
+    @Transactional
+    public void deleteReview(int pokemonId, int reviewId) {
+        Pokemon pokemon = pokemonRepository.findById(pokemonId).orElseThrow(() -> new PokemonNotFoundException("Pokemon with associated review not found"));
+
+        shardTemplate.write(pokemonId, () -> {
+            Review review = reviewRepository.findById(reviewId).orElseThrow(() -> new ReviewNotFoundException("Review with associate pokemon not found"));
+
+            if (review.getPokemon().getId() != pokemon.getId()) {
+                throw new ReviewNotFoundException("This review does not belong to a pokemon");
+            }
 
-    private Review mapToEntity(ReviewDto reviewDto) {
-        Review review = new Review();
-        review.setId(reviewDto.getId());
-        review.setTitle(reviewDto.getTitle());
-        review.setContent(reviewDto.getContent());
-        review.setStars(reviewDto.getStars());
-        return review;
+            reviewRepository.delete(review);
+            eventPublisher.publishEvent(EntityChangedEvent.review(ChangeType.DELETED, pokemonId, reviewId, null));
+            eventPublisher.publishEvent(ReviewRatingChangedEvent.deleted(pokemonId, review.getStars(), review.getCreatedAt()));
+            return null;
+        });
     }
 }
@@ -0,0 +1,297 @@
+package com.pokemonreview.api.snapshot;
+
+import com.pokemonreview.api.catalog.PokemonCatalog;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.leaderboard.ReviewLeaderboard;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warm restarts for the in-memory read models. The pokemon catalog and the leaderboard's review totals are written to
+ * a memory-mapped file every {@code app.cache.snapshot.interval} and at shutdown, and read back from it at startup,
+ * before the first request, instead of being rebuilt from the database.
+ * <p>
+ * The file carries a marker of the database it was taken from: the schema version and, per database, the count,
+ * highest id and version total of pokemon and reviews. Inserts raise the highest id or the count, updates raise the
+ * version total and deletes lower the count, so any write in between changes the marker and the file is discarded at
+ * startup. A section is only written while its read model matches the database the marker describes; one that lags
+ * behind, e.g. on writes of other instances, is left out and rebuilt at the next start.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache.snapshot", name = "enabled", havingValue = "true")
+public class CacheSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    private static final int MAGIC = 0x504b534e;
+    private static final int FORMAT_VERSION = 1;
+    private static final int ALIGNMENT = 8;
+
+    private PokemonRepository pokemonRepository;
+    private ReviewRepository reviewRepository;
+    private ShardTemplate shardTemplate;
+    private ObjectProvider<Flyway> flyway;
+    private ObjectProvider<PokemonCatalog> pokemonCatalog;
+    private ObjectProvider<ReviewLeaderboard> reviewLeaderboard;
+    private Map<String, ByteBuffer> sections;
+    private PokemonCatalog catalog;
+    private ReviewLeaderboard leaderboard;
+
+    @Value("${app.cache.snapshot.file:data/cache-snapshot.bin}")
+    private Path file = Path.of("data/cache-snapshot.bin");
+
+    @Autowired
+    public CacheSnapshot(PokemonRepository pokemonRepository, ReviewRepository reviewRepository, ShardTemplate shardTemplate,
+                         ObjectProvider<Flyway> flyway, ObjectProvider<PokemonCatalog> pokemonCatalog,
+                         ObjectProvider<ReviewLeaderboard> reviewLeaderboard) {
+        this.pokemonRepository = pokemonRepository;
+        this.reviewRepository = reviewRepository;
+        this.shardTemplate = shardTemplate;
+        this.flyway = flyway;
+        this.pokemonCatalog = pokemonCatalog;
+        this.reviewLeaderboard = reviewLeaderboard;
+    }
+
+    CacheSnapshot(PokemonRepository pokemonRepository, ReviewRepository reviewRepository, ShardTemplate shardTemplate,
+                  ObjectProvider<Flyway> flyway, PokemonCatalog catalog, ReviewLeaderboard leaderboard, Path file) {
+        this(pokemonRepository, reviewRepository, shardTemplate, flyway, null, null);
+        this.catalog = catalog;
+        this.leaderboard = leaderboard;
+        this.file = file;
+    }
+
+    /**
+     * The saved state of a read model, positioned at its start, or {@code null} when there is no snapshot, it is
+     * stale, or it has no such section. The file is read and checked against the database on the first call.
+     */
+    public synchronized ByteBuffer section(String name) {
+        if (sections == null) {
+            sections = load();
+        }
+        ByteBuffer section = sections.get(name);
+        return section == null ? null : section.duplicate();
+    }
+
+    // the read models have read their sections by now; the mapping goes away with the last reference to it
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onReady() {
+        sections = Map.of();
+        if (pokemonCatalog != null) {
+            catalog = pokemonCatalog.getIfAvailable();
+            leaderboard = reviewLeaderboard.getIfAvailable();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.cache.snapshot.interval:600000}",
+            fixedDelayString = "${app.cache.snapshot.interval:600000}")
+    public void refresh() {
+        write();
+    }
+
+    @PreDestroy
+    public void stop() {
+        write();
+    }
+
+    /**
+     * Writes the sections that match the database to a new file and moves it over the old one, so a crash while
+     * writing leaves the previous snapshot.
+     */
+    public synchronized void write() {
+        if (catalog == null && leaderboard == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            DatabaseMarker marker = readMarker();
+            Map<String, ByteBuffer> captured = new LinkedHashMap<>();
+            if (catalog != null) {
+                ByteBuffer data = catalog.exportSnapshot(marker.pokemonCount, marker.pokemonMaxId, marker.pokemonVersionSum);
+                if (data != null) {
+                    captured.put(PokemonCatalog.SNAPSHOT_SECTION, data);
+                }
+            }
+            if (leaderboard != null) {
+                ByteBuffer data = leaderboard.exportSnapshot(marker.reviewCount, marker.starSum, marker.reviewPokemonIdSum,
+                        marker.weightedStarSum);
+                if (data != null) {
+                    captured.put(ReviewLeaderboard.SNAPSHOT_SECTION, data);
+                }
+            }
+            if (captured.isEmpty()) {
+                log.info("No cache snapshot written: the read models do not match the database yet");
+                return;
+            }
+            writeFile(marker.value, captured);
+            log.info("Cache snapshot with {} written to {} in {} ms", captured.keySet(), file,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write the cache snapshot to {}", file, ex);
+        }
+    }
+
+    private Map<String, ByteBuffer> load() {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException ex) {
+            return Map.of();
+        } catch (IOException ex) {
+            log.warn("Could not read the cache snapshot {}, rebuilding from the database", file, ex);
+            return Map.of();
+        }
+
+        try {
+            if (mapped.remaining() < 16 || mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring {}, it is not a cache snapshot of this version", file);
+                return Map.of();
+            }
+            Instant writtenAt = Instant.ofEpochMilli(mapped.getLong());
+            String saved = getString(mapped);
+            String current = readMarker().value;
+            if (!saved.equals(current)) {
+                log.info("Discarding the cache snapshot of {}: the database changed since ({} now, {} then)", writtenAt, current, saved);
+                return Map.of();
+            }
+
+            Map<String, ByteBuffer> found = new HashMap<>();
+            int count = mapped.getInt();
+            for (int i = 0; i < count; i++) {
+                String name = getString(mapped);
+                int length = mapped.getInt();
+                align(mapped);
+                found.put(name, mapped.slice().limit(length));
+                mapped.position(mapped.position() + length);
+            }
+            log.info("Warm start from the cache snapshot of {} with {}", writtenAt, found.keySet());
+            return found;
+        } catch (RuntimeException ex) {
+            log.warn("Ignoring the unreadable cache snapshot {}", file, ex);
+            return Map.of();
+        }
+    }
+
+    private void writeFile(String marker, Map<String, ByteBuffer> captured) throws IOException {
+        byte[] markerBytes = marker.getBytes(StandardCharsets.UTF_8);
+        long size = 4 + 4 + 8 + 4 + markerBytes.length + 4;
+        for (Map.Entry<String, ByteBuffer> section : captured.entrySet()) {
+            size += 4 + section.getKey().getBytes(StandardCharsets.UTF_8).length + 4 + ALIGNMENT + section.getValue().remaining();
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis());
+            out.putInt(markerBytes.length).put(markerBytes);
+            out.putInt(captured.size());
+            for (Map.Entry<String, ByteBuffer> section : captured.entrySet()) {
+                putString(out, section.getKey());
+                out.putInt(section.getValue().remaining());
+                align(out);
+                out.put(section.getValue());
+            }
+            out.force();
+            channel.truncate(out.position());
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Aggregates over pokemon and reviews, read from the primary database and every shard rather than a replica that
+     * may lag behind.
+     */
+    DatabaseMarker readMarker() {
+        DatabaseMarker marker = new DatabaseMarker();
+        Flyway migrations = flyway.getIfAvailable();
+        MigrationInfo schema = migrations == null ? null : migrations.info().current();
+        StringBuilder value = new StringBuilder("schema ").append(schema == null ? "-" : schema.getVersion());
+        shardTemplate.writeEach(source -> {
+            value.append("; ").append(source);
+            if (ShardTemplate.PRIMARY.equals(source)) {
+                long[] pokemon = longs(pokemonRepository.aggregate());
+                marker.pokemonCount = pokemon[0];
+                marker.pokemonMaxId = pokemon[1];
+                marker.pokemonVersionSum = pokemon[2];
+                value.append(" pokemon ").append(pokemon[0]).append('/').append(pokemon[1]).append('/').append(pokemon[2]);
+            }
+            long[] reviews = longs(reviewRepository.aggregate());
+            marker.reviewCount += reviews[0];
+            marker.starSum += reviews[3];
+            marker.reviewPokemonIdSum += reviews[4];
+            marker.weightedStarSum += reviews[5];
+            value.append(" reviews ").append(reviews[0]).append('/').append(reviews[1]).append('/').append(reviews[2]);
+        });
+        marker.value = value.toString();
+        return marker;
+    }
+
+    private static long[] longs(List<Object[]> rows) {
+        Object[] row = rows.get(0);
+        long[] values = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            values[i] = row[i] == null ? 0 : ((Number) row[i]).longValue();
+        }
+        return values;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // sections start on a long boundary so their bulk reads are aligned
+    private static void align(ByteBuffer buffer) {
+        buffer.position((buffer.position() + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT);
+    }
+
+    static final class DatabaseMarker {
+        String value;
+        long pokemonCount;
+        long pokemonMaxId;
+        long pokemonVersionSum;
+        long reviewCount;
+        long starSum;
+        long reviewPokemonIdSum;
+        long weightedStarSum;
+    }
+}
@@ -0,0 +1,95 @@
+package com.pokemonreview.api.users;
+
+import com.pokemonreview.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Answers whether a username is taken, mostly without a query. A Bloom filter of all usernames, loaded at startup and
+ * extended on every registration, rules out names that were never registered; only names it reports as probably
+ * taken are looked up in the users table.
+ * <p>
+ * Registrations made through another instance are not in this instance's filter, so the unique constraint on
+ * {@code users.username} stays the final word; callers add such names with {@link #registered} once they hit it.
+ */
+@Component
+public class UsernameAvailability {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAvailability.class);
+
+    private UserRepository userRepository;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter next;
+
+    @Value("${app.users.bloom.expected-users:100000}")
+    private long expectedUsers = 100_000;
+
+    @Value("${app.users.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Autowired
+    public UsernameAvailability(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    UsernameAvailability(UserRepository userRepository, long expectedUsers, double falsePositiveRate) {
+        this(userRepository);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Loads every username into a new filter, sized for twice the current users or
+     * {@code app.users.bloom.expected-users}, whichever is more.
+     */
+    @PostConstruct
+    public void rebuild() {
+        rebuild(List.of());
+    }
+
+    public boolean isTaken(String username) {
+        return filter.mightContain(username) && userRepository.existsByUsername(username);
+    }
+
+    /**
+     * Adds a username about to be saved. Adding it before the insert commits only costs a query if the insert fails,
+     * while adding it after would briefly report a taken name as free.
+     */
+    public void registered(String username) {
+        BloomFilter current = filter;
+        current.put(username);
+        // the rebuild may have read the users table before this insert commits
+        BloomFilter rebuilding = next;
+        if (rebuilding != null) {
+            rebuilding.put(username);
+        }
+        if (current.isSaturated()) {
+            synchronized (this) {
+                if (filter == current) {
+                    rebuild(List.of(username));
+                }
+            }
+        }
+    }
+
+    /**
+     * Registrations made while the users table is read go into both filters, so the new one has them whether or not
+     * their inserts committed in time for the query.
+     */
+    private synchronized void rebuild(List<String> registering) {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedUsers, 2L * userRepository.count()), falsePositiveRate);
+        registering.forEach(rebuilt::put);
+        next = rebuilt;
+        List<String> usernames = userRepository.findAllUsernames();
+        usernames.forEach(rebuilt::put);
+        filter = rebuilt;
+        next = null;
+        log.info("Username filter built with {} users", usernames.size());
+    }
+}
@@ -0,0 +1,191 @@
+package com.pokemonreview.api.writebehind;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pokemonreview.api.dto.ReviewDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Append-only JSON lines file of reviews accepted by {@link ReviewWriteBehind}. A review line carries a sequence
+ * number; once reviews are in the database a marker line lists their sequence numbers as committed. Whatever is
+ * journaled but not marked is saved again after a restart. The file is emptied whenever nothing is outstanding.
+ */
+class ReviewJournal implements Closeable {
+
+    private ObjectMapper objectMapper;
+    private FileChannel channel;
+    private final Object syncLock = new Object();
+    private final Set<Long> pending = new HashSet<>();
+    private long nextSeq = 1;
+    private long size;
+    // bytes ever written and ever forced to disk; unlike the file size they survive truncation
+    private long appended;
+    private long synced;
+
+    ReviewJournal(ObjectMapper objectMapper, Path file) throws IOException {
+        this.objectMapper = objectMapper;
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads the file back and returns the reviews that were never marked committed, in the order they were accepted.
+     * A trailing partial line left by a crash is dropped.
+     */
+    synchronized List<Entry> recover() throws IOException {
+        Map<Long, Entry> outstanding = new LinkedHashMap<>();
+        long lastLineEnd = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel.position(0)), StandardCharsets.UTF_8));
+        String line;
+        long position = 0;
+        while ((line = reader.readLine()) != null) {
+            position += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (position > channel.size()) {
+                break;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            if (node.has("committed")) {
+                node.get("committed").forEach(seq -> outstanding.remove(seq.asLong()));
+            } else {
+                long seq = node.get("seq").asLong();
+                outstanding.put(seq, new Entry(seq, node.get("pokemonId").asInt(),
+                        objectMapper.treeToValue(node.get("review"), ReviewDto.class), 0));
+                nextSeq = Math.max(nextSeq, seq + 1);
+            }
+            lastLineEnd = position;
+        }
+
+        pending.clear();
+        pending.addAll(outstanding.keySet());
+        size = lastLineEnd;
+        channel.truncate(pending.isEmpty() ? 0 : size);
+        size = channel.size();
+        return new ArrayList<>(outstanding.values());
+    }
+
+    /**
+     * Writes the review without forcing it to disk; call {@link #sync} with the entry before acknowledging it.
+     */
+    synchronized Entry append(int pokemonId, ReviewDto review) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("seq", nextSeq);
+        node.put("pokemonId", pokemonId);
+        node.set("review", objectMapper.valueToTree(review));
+        write(node);
+
+        Entry entry = new Entry(nextSeq, pokemonId, review, appended);
+        pending.add(nextSeq);
+        nextSeq++;
+        return entry;
+    }
+
+    /**
+     * Returns once the entry is on disk. Callers arriving while another one forces the file wait for it and are
+     * usually covered by that same force, so concurrent requests share the cost of one fsync.
+     */
+    void sync(Entry entry) {
+        synchronized (syncLock) {
+            if (synced >= entry.end) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = appended;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Marks the entries as saved to the database, and empties the file when nothing else is outstanding.
+     */
+    synchronized void commit(Collection<Entry> entries) {
+        ArrayNode seqs = objectMapper.createArrayNode();
+        for (Entry entry : entries) {
+            pending.remove(entry.seq);
+            seqs.add(entry.seq);
+        }
+        try {
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+                size = 0;
+            } else {
+                write(objectMapper.createObjectNode().set("committed", seqs));
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void write(JsonNode node) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(node) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, size + buffer.position());
+            }
+            size += line.length;
+            appended += line.length;
+        } catch (IOException ex) {
+            // drop whatever part of the line made it, so the file stays parseable
+            try {
+                channel.truncate(size);
+            } catch (IOException ignored) {
+                // the next recovery drops the partial line
+            }
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static final class Entry {
+        final long seq;
+        final int pokemonId;
+        final ReviewDto review;
+        final long end;
+
+        Entry(long seq, int pokemonId, ReviewDto review, long end) {
+            this.seq = seq;
+            this.pokemonId = pokemonId;
+            this.review = review;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.pokemonreview.api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.ReviewQueueFullException;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.ReviewService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind mode for review creation. Accepted reviews are journaled, queued and acknowledged right away; a single
+ * flusher thread saves them in batches with one transaction per shard instead of one per review. When more than
+ * {@code app.reviews.write-behind.capacity} reviews are waiting, new ones are refused so callers back off.
+ * <p>
+ * A review is in the journal before it is acknowledged and is marked committed only after its transaction, so a crash
+ * loses nothing but may save the last batch twice: delivery is at least once.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.reviews.write-behind", name = "enabled", havingValue = "true")
+public class ReviewWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewWriteBehind.class);
+
+    private ReviewService reviewService;
+    private PokemonRepository pokemonRepository;
+    private ShardTemplate shardTemplate;
+    private ObjectMapper objectMapper;
+    private ReviewJournal journal;
+    private Thread flusher;
+    private final BlockingQueue<ReviewJournal.Entry> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+
+    @Value("${app.reviews.write-behind.journal:data/review-journal.jsonl}")
+    private Path file = Path.of("data/review-journal.jsonl");
+
+    @Value("${app.reviews.write-behind.capacity:10000}")
+    private int capacity = 10_000;
+
+    @Value("${app.reviews.write-behind.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.reviews.write-behind.max-delay:10}")
+    private long maxDelay = 10;
+
+    @Value("${app.reviews.write-behind.retry-delay:1000}")
+    private long retryDelay = 1000;
+
+    @Autowired
+    public ReviewWriteBehind(ReviewService reviewService, PokemonRepository pokemonRepository, ShardTemplate shardTemplate,
+                             ObjectMapper objectMapper) {
+        this.reviewService = reviewService;
+        this.pokemonRepository = pokemonRepository;
+        this.shardTemplate = shardTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    ReviewWriteBehind(ReviewService reviewService, PokemonRepository pokemonRepository, ShardTemplate shardTemplate,
+                      ObjectMapper objectMapper, Path file, int capacity, int batchSize) {
+        this(reviewService, pokemonRepository, shardTemplate, objectMapper);
+        this.file = file;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        open();
+        flusher = new Thread(this::flushContinuously, "review-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting reviews and saves the queued ones before the database goes away; whatever cannot be saved stays
+     * in the journal for the next start.
+     */
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        synchronized (this) {
+            running = false;
+        }
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        journal.close();
+    }
+
+    public ReviewDto submit(int pokemonId, ReviewDto reviewDto) {
+        if (!pokemonRepository.existsById(pokemonId)) {
+            throw new PokemonNotFoundException("Pokemon with associated review not found");
+        }
+        ReviewDto accepted = ReviewDto.builder()
+                .title(reviewDto.getTitle())
+                .content(reviewDto.getContent())
+                .stars(reviewDto.getStars())
+                .pokemonId(pokemonId)
+                .build();
+
+        // journal order and queue order must agree, or a crash could mark the wrong reviews as committed
+        ReviewJournal.Entry entry;
+        synchronized (this) {
+            if (!running || queue.size() >= capacity) {
+                throw new ReviewQueueFullException("Too many reviews are waiting to be saved, please retry later");
+            }
+            entry = journal.append(pokemonId, accepted);
+            queue.add(entry);
+        }
+        journal.sync(entry);
+        return accepted;
+    }
+
+    void open() throws IOException {
+        journal = new ReviewJournal(objectMapper, file);
+        List<ReviewJournal.Entry> recovered = journal.recover();
+        if (!recovered.isEmpty()) {
+            log.info("Requeued {} journaled reviews that were not saved before the last shutdown", recovered.size());
+        }
+        queue.addAll(recovered);
+        running = true;
+    }
+
+    /**
+     * Saves everything queued right now on the calling thread.
+     */
+    void flushPending() {
+        List<ReviewJournal.Entry> batch = new ArrayList<>();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    int getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    private void flushContinuously() {
+        List<ReviewJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ReviewJournal.Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // under load the queue already holds a full batch; otherwise wait briefly for more to group together
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelay);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ReviewJournal.Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Unexpected failure while saving queued reviews", ex);
+            }
+            batch.clear();
+        }
+    }
+
+    // one transaction per shard, so a failing shard does not make the others save their reviews twice
+    private void flush(List<ReviewJournal.Entry> batch) {
+        Set<Integer> pokemonIds = batch.stream().map(entry -> entry.pokemonId).collect(Collectors.toSet());
+        for (List<Integer> shardPokemonIds : shardTemplate.partition(pokemonIds).values()) {
+            Set<Integer> owned = new HashSet<>(shardPokemonIds);
+            save(batch.stream().filter(entry -> owned.contains(entry.pokemonId)).collect(Collectors.toList()));
+        }
+    }
+
+    private void save(List<ReviewJournal.Entry> entries) {
+        while (true) {
+            try {
+                reviewService.createReviews(entries.stream().map(entry -> entry.review).collect(Collectors.toList()));
+                markCommitted(entries);
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (entries.size() > 1) {
+                    // find the offending reviews instead of giving up on the whole batch
+                    for (ReviewJournal.Entry entry : entries) {
+                        save(List.of(entry));
+                    }
+                    return;
+                }
+                ReviewJournal.Entry entry = entries.get(0);
+                log.error("Dropping queued review {} of pokemon {}, the database rejects it", entry.seq, entry.pokemonId, ex);
+                markCommitted(entries);
+                return;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    log.warn("Could not save {} queued reviews before shutdown, they stay in the journal", entries.size(), ex);
+                    return;
+                }
+                log.warn("Could not save {} queued reviews, retrying in {} ms", entries.size(), retryDelay, ex);
+                try {
+                    Thread.sleep(retryDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // the reviews are saved at this point; retrying because the marker failed would save them twice
+    private void markCommitted(List<ReviewJournal.Entry> entries) {
+        try {
+            journal.commit(entries);
+        } catch (UncheckedIOException ex) {
+            log.error("Could not mark {} saved reviews as committed, they are saved again after a restart", entries.size(), ex);
+        }
+    }
+}
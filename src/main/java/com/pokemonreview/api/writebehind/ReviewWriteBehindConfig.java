@@ -0,0 +1,15 @@
+package com.pokemonreview.api.writebehind;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReviewWriteBehindConfig {
+
+    // reviews left in the journal by the last run are saved at startup, not on the first request
+    @Bean
+    public static LazyInitializationExcludeFilter reviewWriteBehindEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ReviewWriteBehind.class);
+    }
+}
@@ -0,0 +1,39 @@
+CREATE TABLE pokemon (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    type VARCHAR(255)
+);
+
+CREATE TABLE review (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title      VARCHAR(255),
+    content    VARCHAR(255),
+    stars      INTEGER NOT NULL,
+    pokemon_id INTEGER,
+    CONSTRAINT fk_review_pokemon FOREIGN KEY (pokemon_id) REFERENCES pokemon (id)
+);
+
+CREATE INDEX idx_review_pokemon_id ON review (pokemon_id);
+
+CREATE TABLE roles (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE users (
+    id       INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE user_roles (
+    user_id INTEGER NOT NULL,
+    role_id INTEGER NOT NULL,
+    CONSTRAINT pk_user_roles PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE INDEX idx_user_roles_role_id ON user_roles (role_id);
@@ -0,0 +1,2 @@
+ALTER TABLE pokemon ADD COLUMN version INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE review ADD COLUMN version INTEGER DEFAULT 0 NOT NULL;
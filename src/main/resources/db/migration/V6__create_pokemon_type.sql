@@ -0,0 +1,13 @@
+-- pokemon types move to a dictionary table; pokemon rows keep a two-byte code instead of the name
+CREATE TABLE pokemon_type (
+    id   SMALLINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_pokemon_type_name UNIQUE (name)
+);
+
+INSERT INTO pokemon_type (name) SELECT DISTINCT type FROM pokemon WHERE type IS NOT NULL ORDER BY type;
+
+ALTER TABLE pokemon ADD COLUMN type_id SMALLINT;
+UPDATE pokemon SET type_id = (SELECT t.id FROM pokemon_type t WHERE t.name = pokemon.type);
+ALTER TABLE pokemon DROP COLUMN type;
+ALTER TABLE pokemon ADD CONSTRAINT fk_pokemon_type FOREIGN KEY (type_id) REFERENCES pokemon_type (id);
@@ -0,0 +1,11 @@
+-- pokemon lives on the primary database, so shards cannot enforce the pokemon_id foreign key
+CREATE TABLE review (
+    id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title      VARCHAR(255),
+    content    VARCHAR(255),
+    stars      INTEGER NOT NULL,
+    pokemon_id INTEGER,
+    version    INTEGER DEFAULT 0 NOT NULL
+);
+
+CREATE INDEX idx_review_pokemon_id ON review (pokemon_id);
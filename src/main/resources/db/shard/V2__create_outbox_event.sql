@@ -0,0 +1,9 @@
+CREATE TABLE outbox_event (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_type VARCHAR(16) NOT NULL,
+    aggregate_id   INTEGER NOT NULL,
+    pokemon_id     INTEGER NOT NULL,
+    event_type     VARCHAR(16) NOT NULL,
+    payload        VARCHAR(2000),
+    created_at     TIMESTAMP NOT NULL
+);
@@ -0,0 +1,16 @@
+-- reviews written before this migration keep NULL timestamps: when they were created is not known. There is no
+-- default either: a review counts in rating_rollup exactly when created_at is set, and only the application keeps
+-- the rollups in step
+ALTER TABLE review ADD COLUMN created_at TIMESTAMP;
+ALTER TABLE review ADD COLUMN updated_at TIMESTAMP;
+
+CREATE TABLE rating_rollup (
+    pokemon_id   INTEGER NOT NULL,
+    granularity  VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    review_count BIGINT NOT NULL,
+    stars_total  BIGINT NOT NULL,
+    PRIMARY KEY (pokemon_id, granularity, bucket_start)
+);
+
+CREATE INDEX idx_rating_rollup_granularity_bucket ON rating_rollup (granularity, bucket_start);
@@ -0,0 +1,59 @@
+package com.pokemonreview.reactive.controllers;
+
+import com.pokemonreview.api.dto.AuthResponseDTO;
+import com.pokemonreview.api.dto.LoginDto;
+import com.pokemonreview.api.dto.RegisterDto;
+import com.pokemonreview.api.security.JWTGenerator;
+import com.pokemonreview.reactive.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private ReactiveAuthenticationManager authenticationManager;
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private JWTGenerator jwtGenerator;
+
+    @Autowired
+    public AuthController(ReactiveAuthenticationManager authenticationManager, UserRepository userRepository,
+                          PasswordEncoder passwordEncoder, JWTGenerator jwtGenerator) {
+        this.authenticationManager = authenticationManager;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtGenerator = jwtGenerator;
+    }
+
+    @PostMapping("login")
+    public Mono<ResponseEntity<AuthResponseDTO>> login(@RequestBody LoginDto loginDto) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword()))
+                .map(authentication -> new ResponseEntity<>(new AuthResponseDTO(jwtGenerator.generateToken(authentication)), HttpStatus.OK));
+    }
+
+    @PostMapping("register")
+    public Mono<ResponseEntity<String>> register(@RequestBody RegisterDto registerDto) {
+        return userRepository.existsByUsername(registerDto.getUsername())
+                .flatMap(taken -> {
+                    if (taken) {
+                        return Mono.just(new ResponseEntity<>("Username is taken!", HttpStatus.BAD_REQUEST));
+                    }
+                    // BCrypt is deliberately slow, keep it off the event loop
+                    return Mono.fromCallable(() -> passwordEncoder.encode(registerDto.getPassword()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(password -> userRepository.save(registerDto.getUsername(), password, "USER"))
+                            .thenReturn(new ResponseEntity<>("User registered success!", HttpStatus.OK));
+                });
+    }
+}
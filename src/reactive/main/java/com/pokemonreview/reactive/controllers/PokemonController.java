@@ -0,0 +1,51 @@
+package com.pokemonreview.reactive.controllers;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.reactive.service.PokemonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/")
+public class PokemonController {
+
+    private PokemonService pokemonService;
+
+    @Autowired
+    public PokemonController(PokemonService pokemonService) {
+        this.pokemonService = pokemonService;
+    }
+
+    @GetMapping("pokemon")
+    public Mono<ResponseEntity<PokemonResponse>> getAllPokemon(
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
+    ) {
+        return pokemonService.getAllPokemon(pageNo, pageSize).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("pokemon/{id}")
+    public Mono<ResponseEntity<PokemonDto>> pokemonDetail(@PathVariable int id) {
+        return pokemonService.getPokemonById(id).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("pokemon/create")
+    public Mono<ResponseEntity<PokemonDto>> createPokemon(@RequestBody PokemonDto pokemonDto) {
+        return pokemonService.createPokemon(pokemonDto).map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @PutMapping("pokemon/{id}/update")
+    public Mono<ResponseEntity<PokemonDto>> updatePokemon(@RequestBody PokemonDto pokemonDto, @PathVariable("id") int pokemonId) {
+        return pokemonService.updatePokemon(pokemonDto, pokemonId).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("pokemon/{id}/delete")
+    public Mono<ResponseEntity<String>> deletePokemon(@PathVariable("id") int pokemonId) {
+        return pokemonService.deletePokemonId(pokemonId).thenReturn(new ResponseEntity<>("Pokemon delete", HttpStatus.OK));
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.pokemonreview.reactive.controllers;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.reactive.service.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/")
+public class ReviewController {
+
+    private ReviewService reviewService;
+
+    @Autowired
+    public ReviewController(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @PostMapping("/pokemon/{pokemonId}/reviews")
+    public Mono<ResponseEntity<ReviewDto>> createReview(@PathVariable(value = "pokemonId") int pokemonId, @RequestBody ReviewDto reviewDto) {
+        return reviewService.createReview(pokemonId, reviewDto).map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/pokemon/{pokemonId}/reviews")
+    public Flux<ReviewDto> getReviewsByPokemonId(@PathVariable(value = "pokemonId") int pokemonId) {
+        return reviewService.getReviewsByPokemonId(pokemonId);
+    }
+
+    @GetMapping("/pokemon/{pokemonId}/reviews/{id}")
+    public Mono<ResponseEntity<ReviewDto>> getReviewById(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId) {
+        return reviewService.getReviewById(pokemonId, reviewId).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/pokemon/{pokemonId}/reviews/{id}")
+    public Mono<ResponseEntity<ReviewDto>> updateReview(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId,
+                                                        @RequestBody ReviewDto reviewDto) {
+        return reviewService.updateReview(pokemonId, reviewId, reviewDto).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/pokemon/{pokemonId}/reviews/{id}")
+    public Mono<ResponseEntity<String>> deleteReview(@PathVariable(value = "pokemonId") int pokemonId, @PathVariable(value = "id") int reviewId) {
+        return reviewService.deleteReview(pokemonId, reviewId).thenReturn(new ResponseEntity<>("Review deleted successfully", HttpStatus.OK));
+    }
+}
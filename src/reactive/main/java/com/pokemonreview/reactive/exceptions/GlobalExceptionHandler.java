@@ -0,0 +1,42 @@
+package com.pokemonreview.reactive.exceptions;
+
+import com.pokemonreview.api.exceptions.ErrorObject;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.Date;
+
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler({PokemonNotFoundException.class, ReviewNotFoundException.class})
+    public ResponseEntity<ErrorObject> handleNotFoundException(RuntimeException ex) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<ErrorObject> handleVersionMismatchException(VersionMismatchException ex) {
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorObject> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return error(HttpStatus.CONFLICT, "The resource was modified concurrently, please retry");
+    }
+
+    private static ResponseEntity<ErrorObject> error(HttpStatus status, String message) {
+        ErrorObject errorObject = new ErrorObject();
+
+        errorObject.setStatusCode(status.value());
+        errorObject.setMessage(message);
+        errorObject.setTimestamp(new Date());
+
+        return new ResponseEntity<ErrorObject>(errorObject, status);
+    }
+}
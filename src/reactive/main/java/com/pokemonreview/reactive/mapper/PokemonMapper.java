@@ -0,0 +1,21 @@
+package com.pokemonreview.reactive.mapper;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.reactive.models.Pokemon;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface PokemonMapper {
+    PokemonMapper INSTANCE = Mappers.getMapper(PokemonMapper.class);
+
+    @Mapping(target = "reviews", ignore = true)
+    PokemonDto toDto(Pokemon pokemon);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "typeId", ignore = true)
+    Pokemon toEntity(PokemonDto pokemonDto);
+}
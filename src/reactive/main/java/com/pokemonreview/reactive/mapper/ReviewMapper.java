@@ -0,0 +1,22 @@
+package com.pokemonreview.reactive.mapper;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.reactive.models.Review;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ReviewMapper {
+    ReviewMapper INSTANCE = Mappers.getMapper(ReviewMapper.class);
+
+    ReviewDto toDto(Review review);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "pokemonId", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Review toEntity(ReviewDto reviewDto);
+}
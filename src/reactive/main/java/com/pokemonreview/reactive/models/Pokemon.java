@@ -0,0 +1,31 @@
+package com.pokemonreview.reactive.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("pokemon")
+public class Pokemon {
+    @Id
+    private Integer id;
+    private String name;
+
+    // rows store the type's code; services fill in the name from PokemonTypeRepository
+    @Column("type_id")
+    private Short typeId;
+    @Transient
+    private String type;
+
+    @Version
+    private Integer version;
+}
@@ -0,0 +1,30 @@
+package com.pokemonreview.reactive.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table("review")
+public class Review {
+    @Id
+    private Integer id;
+    private String title;
+    private String content;
+    private int stars;
+    private Integer pokemonId;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @Version
+    private Integer version;
+}
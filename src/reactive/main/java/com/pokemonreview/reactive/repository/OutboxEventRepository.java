@@ -0,0 +1,74 @@
+package com.pokemonreview.reactive.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.models.ChangeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The servlet application's {@code outbox_event} table. Changes made here are written to it inside the caller's
+ * transaction, like the servlet services do, so the outbox relay and {@code /api/events} see them as well.
+ */
+@Repository
+public class OutboxEventRepository {
+
+    private static final String INSERT = "INSERT INTO outbox_event "
+            + "(aggregate_type, aggregate_id, pokemon_id, event_type, payload, created_at) "
+            + "VALUES (:aggregateType, :aggregateId, :pokemonId, :eventType, :payload, :createdAt)";
+
+    private DatabaseClient databaseClient;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxEventRepository(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records a pokemon change; the payload is the written dto, {@code null} for deletions.
+     */
+    public Mono<Void> pokemonChanged(ChangeType eventType, int pokemonId, PokemonDto pokemon) {
+        return insert(EntityChangedEvent.POKEMON, pokemonId, pokemonId, eventType, pokemon);
+    }
+
+    /**
+     * Records a review change; the payload is the written dto, {@code null} for deletions.
+     */
+    public Mono<Void> reviewChanged(ChangeType eventType, int pokemonId, int reviewId, ReviewDto review) {
+        return insert(EntityChangedEvent.REVIEW, reviewId, pokemonId, eventType, review);
+    }
+
+    private Mono<Void> insert(String aggregateType, int aggregateId, int pokemonId, ChangeType eventType,
+                              Object payload) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT)
+                .bind("aggregateType", aggregateType)
+                .bind("aggregateId", aggregateId)
+                .bind("pokemonId", pokemonId)
+                .bind("eventType", eventType.name())
+                // the servlet application writes created_at as a JDBC timestamp, in the JVM's time zone
+                .bind("createdAt", LocalDateTime.now());
+        String json = toJson(payload);
+        insert = json == null ? insert.bindNull("payload", String.class) : insert.bind("payload", json);
+        return insert.fetch().rowsUpdated().then();
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize change event payload", ex);
+        }
+    }
+}
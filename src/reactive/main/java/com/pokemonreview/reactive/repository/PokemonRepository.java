@@ -0,0 +1,10 @@
+package com.pokemonreview.reactive.repository;
+
+import com.pokemonreview.reactive.models.Pokemon;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface PokemonRepository extends ReactiveCrudRepository<Pokemon, Integer> {
+    Flux<Pokemon> findAllBy(Pageable pageable);
+}
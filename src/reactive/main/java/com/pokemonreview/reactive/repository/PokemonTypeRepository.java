@@ -0,0 +1,79 @@
+package com.pokemonreview.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pokemon types and their codes in the {@code pokemon_type} table, cached once read since types are never removed.
+ * A new type is inserted the first time it is used; callers resolve it outside their transaction so the insert commits
+ * on its own.
+ */
+@Repository
+public class PokemonTypeRepository {
+
+    private DatabaseClient databaseClient;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private final Map<Short, String> names = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PokemonTypeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Returns the type's code, adding the type if it is new, or nothing for a null name.
+     */
+    public Mono<Short> codeOf(String name) {
+        if (name == null) {
+            return Mono.empty();
+        }
+        Short code = codes.get(name);
+        if (code != null) {
+            return Mono.just(code);
+        }
+        return findCode(name)
+                .switchIfEmpty(Mono.defer(() -> insert(name).then(findCode(name))))
+                .doOnNext(found -> put(found, name));
+    }
+
+    public Mono<String> nameOf(short code) {
+        String name = names.get(code);
+        if (name != null) {
+            return Mono.just(name);
+        }
+        return databaseClient.sql("SELECT name FROM pokemon_type WHERE id = :id")
+                .bind("id", code)
+                .map(row -> row.get("name", String.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Unknown pokemon type code " + code)))
+                .doOnNext(found -> put(code, found));
+    }
+
+    private Mono<Short> findCode(String name) {
+        return databaseClient.sql("SELECT id FROM pokemon_type WHERE name = :name")
+                .bind("name", name)
+                .map(row -> row.get("id", Short.class))
+                .one();
+    }
+
+    private Mono<Void> insert(String name) {
+        return databaseClient.sql("INSERT INTO pokemon_type (name) VALUES (:name)")
+                .bind("name", name)
+                .fetch()
+                .rowsUpdated()
+                // another request or instance added it first
+                .onErrorResume(DataIntegrityViolationException.class, ex -> Mono.empty())
+                .then();
+    }
+
+    private void put(short code, String name) {
+        String shared = names.computeIfAbsent(code, key -> name);
+        codes.putIfAbsent(shared, code);
+    }
+}
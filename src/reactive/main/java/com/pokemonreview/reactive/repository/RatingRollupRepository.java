@@ -0,0 +1,93 @@
+package com.pokemonreview.reactive.repository;
+
+import com.pokemonreview.api.models.RollupGranularity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The hourly and daily rating rollups the servlet application keeps in {@code rating_rollup}. A review counts in them
+ * exactly when it has a creation time, so changes to such reviews made here apply the same deltas, inside the caller's
+ * transaction.
+ */
+@Repository
+public class RatingRollupRepository {
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO rating_rollup "
+            + "(pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "VALUES (:pokemonId, :granularity, :bucketStart, :reviewCount, :starsTotal) "
+            + "ON CONFLICT (pokemon_id, granularity, bucket_start) DO UPDATE SET "
+            + "review_count = rating_rollup.review_count + EXCLUDED.review_count, "
+            + "stars_total = rating_rollup.stars_total + EXCLUDED.stars_total";
+
+    // H2 has no ON CONFLICT ... DO UPDATE; its MERGE is not atomic, so a concurrent insert of the same new bucket fails
+    // with a unique violation and is retried, adding to the bucket the other transaction committed
+    private static final String STANDARD_UPSERT = "MERGE INTO rating_rollup t USING (VALUES ("
+            + "CAST(:pokemonId AS INTEGER), CAST(:granularity AS VARCHAR(8)), CAST(:bucketStart AS TIMESTAMP), "
+            + "CAST(:reviewCount AS BIGINT), CAST(:starsTotal AS BIGINT))) "
+            + "AS s (pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "ON t.pokemon_id = s.pokemon_id AND t.granularity = s.granularity AND t.bucket_start = s.bucket_start "
+            + "WHEN MATCHED THEN UPDATE SET review_count = t.review_count + s.review_count, "
+            + "stars_total = t.stars_total + s.stars_total "
+            + "WHEN NOT MATCHED THEN INSERT (pokemon_id, granularity, bucket_start, review_count, stars_total) "
+            + "VALUES (s.pokemon_id, s.granularity, s.bucket_start, s.review_count, s.stars_total)";
+
+    private static final int MAX_RETRIES = 2;
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public RatingRollupRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Adds the deltas to both buckets of a review created at {@code createdAt}, or does nothing for a review without a
+     * creation time. Buckets are upserted in the servlet application's order, hour before day, so the two cannot
+     * deadlock on each other's rows.
+     */
+    public Mono<Void> increment(int pokemonId, Instant createdAt, long reviewCount, long starsTotal) {
+        if (createdAt == null || (reviewCount == 0 && starsTotal == 0)) {
+            return Mono.empty();
+        }
+        return Flux.fromArray(RollupGranularity.values())
+                .concatMap(granularity -> upsert(pokemonId, granularity, granularity.bucketOf(createdAt),
+                        reviewCount, starsTotal))
+                .then();
+    }
+
+    public Mono<Void> deleteByPokemonId(int pokemonId) {
+        return databaseClient.sql("DELETE FROM rating_rollup WHERE pokemon_id = :pokemonId")
+                .bind("pokemonId", pokemonId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Mono<Void> upsert(int pokemonId, RollupGranularity granularity, Instant bucketStart, long reviewCount,
+                              long starsTotal) {
+        boolean postgres = "PostgreSQL".equals(databaseClient.getConnectionFactory().getMetadata().getName());
+        Mono<Void> upsert = databaseClient.sql(postgres ? POSTGRES_UPSERT : STANDARD_UPSERT)
+                .bind("pokemonId", pokemonId)
+                .bind("granularity", granularity.name())
+                // the servlet application writes bucket starts as JDBC timestamps, in the JVM's time zone
+                .bind("bucketStart", LocalDateTime.ofInstant(bucketStart, ZoneId.systemDefault()))
+                .bind("reviewCount", reviewCount)
+                .bind("starsTotal", starsTotal)
+                .fetch()
+                .rowsUpdated()
+                .then();
+        if (postgres) {
+            return upsert;
+        }
+        return upsert.retryWhen(Retry.max(MAX_RETRIES).filter(DataIntegrityViolationException.class::isInstance));
+    }
+}
@@ -0,0 +1,16 @@
+package com.pokemonreview.reactive.repository;
+
+import com.pokemonreview.reactive.models.Review;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReviewRepository extends ReactiveCrudRepository<Review, Integer> {
+    Flux<Review> findByPokemonId(int pokemonId);
+
+    @Modifying
+    @Query("DELETE FROM review WHERE pokemon_id = :pokemonId")
+    Mono<Integer> deleteByPokemonId(int pokemonId);
+}
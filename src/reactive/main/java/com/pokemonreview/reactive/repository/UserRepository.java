@@ -0,0 +1,73 @@
+package com.pokemonreview.reactive.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Users and their roles, read and written with plain SQL since R2DBC has no many-to-many mapping.
+ */
+@Repository
+public class UserRepository {
+
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    public UserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<UserDetails> findByUsername(String username) {
+        return databaseClient.sql("SELECT u.username, u.password, r.name AS role FROM users u "
+                        + "LEFT JOIN user_roles ur ON ur.user_id = u.id LEFT JOIN roles r ON r.id = ur.role_id "
+                        + "WHERE u.username = :username")
+                .bind("username", username)
+                .map(row -> new String[]{row.get("username", String.class), row.get("password", String.class), row.get("role", String.class)})
+                .all()
+                .collectList()
+                .flatMap(rows -> {
+                    if (rows.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+                    for (String[] row : rows) {
+                        if (row[2] != null) {
+                            authorities.add(new SimpleGrantedAuthority(row[2]));
+                        }
+                    }
+                    return Mono.just(new User(rows.get(0)[0], rows.get(0)[1], authorities));
+                });
+    }
+
+    public Mono<Boolean> existsByUsername(String username) {
+        return databaseClient.sql("SELECT COUNT(*) AS users FROM users WHERE username = :username")
+                .bind("username", username)
+                .map(row -> row.get("users", Long.class))
+                .one()
+                .map(count -> count > 0);
+    }
+
+    @Transactional
+    public Mono<Void> save(String username, String encodedPassword, String roleName) {
+        return databaseClient.sql("INSERT INTO users (username, password) VALUES (:username, :password)")
+                .bind("username", username)
+                .bind("password", encodedPassword)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .flatMap(userId -> databaseClient.sql("INSERT INTO user_roles (user_id, role_id) SELECT :userId, id FROM roles WHERE name = :role")
+                        .bind("userId", userId)
+                        .bind("role", roleName)
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+}
@@ -0,0 +1,36 @@
+package com.pokemonreview.reactive.security;
+
+import com.pokemonreview.api.security.JWTGenerator;
+import com.pokemonreview.reactive.repository.UserRepository;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the servlet stack's JWTAuthenticationFilter: validates the bearer token handed over as
+ * credentials and loads the user's roles.
+ */
+public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private JWTGenerator tokenGenerator;
+    private UserRepository userRepository;
+
+    public JwtAuthenticationManager(JWTGenerator tokenGenerator, UserRepository userRepository) {
+        this.tokenGenerator = tokenGenerator;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String token = (String) authentication.getCredentials();
+        return Mono.fromCallable(() -> {
+                    tokenGenerator.validateToken(token);
+                    return tokenGenerator.getUsernameFromJWT(token);
+                })
+                .flatMap(userRepository::findByUsername)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Username not found")))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
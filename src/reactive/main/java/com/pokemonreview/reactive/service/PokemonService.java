@@ -0,0 +1,13 @@
+package com.pokemonreview.reactive.service;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonResponse;
+import reactor.core.publisher.Mono;
+
+public interface PokemonService {
+    Mono<PokemonDto> createPokemon(PokemonDto pokemonDto);
+    Mono<PokemonResponse> getAllPokemon(int pageNo, int pageSize);
+    Mono<PokemonDto> getPokemonById(int id);
+    Mono<PokemonDto> updatePokemon(PokemonDto pokemonDto, int id);
+    Mono<Void> deletePokemonId(int id);
+}
@@ -0,0 +1,13 @@
+package com.pokemonreview.reactive.service;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReviewService {
+    Mono<ReviewDto> createReview(int pokemonId, ReviewDto reviewDto);
+    Flux<ReviewDto> getReviewsByPokemonId(int id);
+    Mono<ReviewDto> getReviewById(int pokemonId, int reviewId);
+    Mono<ReviewDto> updateReview(int pokemonId, int reviewId, ReviewDto reviewDto);
+    Mono<Void> deleteReview(int pokemonId, int reviewId);
+}
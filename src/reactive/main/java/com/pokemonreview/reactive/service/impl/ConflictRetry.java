@@ -0,0 +1,26 @@
+package com.pokemonreview.reactive.service.impl;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+
+final class ConflictRetry {
+
+    // same budget as the servlet stack's @RetryOnConflict: five attempts, 20ms apart
+    private static final int MAX_RETRIES = 4;
+    private static final Duration BACKOFF = Duration.ofMillis(20);
+
+    private ConflictRetry() {
+    }
+
+    /**
+     * Re-subscribes to a whole transaction that lost an optimistic locking race, so each attempt re-reads the row.
+     */
+    static RetryBackoffSpec optimisticLocking() {
+        return Retry.backoff(MAX_RETRIES, BACKOFF)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+}
@@ -0,0 +1,137 @@
+package com.pokemonreview.reactive.service.impl;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.reactive.mapper.PokemonMapper;
+import com.pokemonreview.reactive.models.Pokemon;
+import com.pokemonreview.reactive.repository.OutboxEventRepository;
+import com.pokemonreview.reactive.repository.PokemonRepository;
+import com.pokemonreview.reactive.repository.PokemonTypeRepository;
+import com.pokemonreview.reactive.repository.RatingRollupRepository;
+import com.pokemonreview.reactive.repository.ReviewRepository;
+import com.pokemonreview.reactive.service.PokemonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+@Service
+public class PokemonServiceImpl implements PokemonService {
+    private PokemonRepository pokemonRepository;
+    private ReviewRepository reviewRepository;
+    private PokemonTypeRepository pokemonTypeRepository;
+    private RatingRollupRepository ratingRollupRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private TransactionalOperator transactionalOperator;
+    private PokemonMapper pokemonMapper = PokemonMapper.INSTANCE;
+
+    @Autowired
+    public PokemonServiceImpl(PokemonRepository pokemonRepository, ReviewRepository reviewRepository,
+                              PokemonTypeRepository pokemonTypeRepository,
+                              RatingRollupRepository ratingRollupRepository,
+                              OutboxEventRepository outboxEventRepository,
+                              TransactionalOperator transactionalOperator) {
+        this.pokemonRepository = pokemonRepository;
+        this.reviewRepository = reviewRepository;
+        this.pokemonTypeRepository = pokemonTypeRepository;
+        this.ratingRollupRepository = ratingRollupRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<PokemonDto> createPokemon(PokemonDto pokemonDto) {
+        Mono<PokemonDto> create = withTypeId(pokemonMapper.toEntity(pokemonDto))
+                .flatMap(pokemonRepository::save)
+                .map(pokemonMapper::toDto)
+                .flatMap(created -> outboxEventRepository.pokemonChanged(ChangeType.CREATED, created.getId(), created)
+                        .thenReturn(created));
+        // as for updates, a new type is added before the transaction starts
+        return pokemonTypeRepository.codeOf(pokemonDto.getType()).then(transactionalOperator.transactional(create));
+    }
+
+    /**
+     * The page and the count run on separate pooled connections at the same time.
+     */
+    @Override
+    public Mono<PokemonResponse> getAllPokemon(int pageNo, int pageSize) {
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        return Mono.zip(pokemonRepository.findAllBy(pageable).concatMap(this::withTypeName).map(pokemonMapper::toDto).collectList(), pokemonRepository.count())
+                .map(result -> {
+                    Page<PokemonDto> pokemons = new PageImpl<>(result.getT1(), pageable, result.getT2());
+
+                    PokemonResponse pokemonResponse = new PokemonResponse();
+                    pokemonResponse.setContent(pokemons.getContent());
+                    pokemonResponse.setPageNo(pokemons.getNumber());
+                    pokemonResponse.setPageSize(pokemons.getSize());
+                    pokemonResponse.setTotalElements(pokemons.getTotalElements());
+                    pokemonResponse.setTotalPages(pokemons.getTotalPages());
+                    pokemonResponse.setLast(pokemons.isLast());
+                    return pokemonResponse;
+                });
+    }
+
+    @Override
+    public Mono<PokemonDto> getPokemonById(int id) {
+        return pokemonRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PokemonNotFoundException("Pokemon could not be found")))
+                .flatMap(this::withTypeName)
+                .map(pokemonMapper::toDto);
+    }
+
+    @Override
+    public Mono<PokemonDto> updatePokemon(PokemonDto pokemonDto, int id) {
+        Mono<PokemonDto> update = pokemonRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new PokemonNotFoundException("Pokemon could not be updated")))
+                .flatMap(pokemon -> {
+                    if (pokemonDto.getVersion() != null && !pokemonDto.getVersion().equals(pokemon.getVersion())) {
+                        return Mono.error(new VersionMismatchException("Pokemon was modified by another request"));
+                    }
+                    pokemon.setName(pokemonDto.getName());
+                    pokemon.setType(pokemonDto.getType());
+                    return withTypeId(pokemon).flatMap(pokemonRepository::save);
+                })
+                .map(pokemonMapper::toDto)
+                .flatMap(updated -> outboxEventRepository.pokemonChanged(ChangeType.UPDATED, id, updated)
+                        .thenReturn(updated));
+        // a new type is added before the transaction starts, so the update itself finds its code cached
+        return pokemonTypeRepository.codeOf(pokemonDto.getType())
+                .then(transactionalOperator.transactional(update))
+                .retryWhen(ConflictRetry.optimisticLocking());
+    }
+
+    @Override
+    public Mono<Void> deletePokemonId(int id) {
+        Mono<Void> delete = pokemonRepository.existsById(id)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new PokemonNotFoundException("Pokemon could not be delete"));
+                    }
+                    return reviewRepository.deleteByPokemonId(id)
+                            .then(ratingRollupRepository.deleteByPokemonId(id))
+                            .then(pokemonRepository.deleteById(id))
+                            // one event for the pokemon; consumers drop its reviews with it
+                            .then(outboxEventRepository.pokemonChanged(ChangeType.DELETED, id, null));
+                });
+        return transactionalOperator.transactional(delete);
+    }
+
+    private Mono<Pokemon> withTypeId(Pokemon pokemon) {
+        pokemon.setTypeId(null);
+        return pokemonTypeRepository.codeOf(pokemon.getType()).doOnNext(pokemon::setTypeId).thenReturn(pokemon);
+    }
+
+    private Mono<Pokemon> withTypeName(Pokemon pokemon) {
+        if (pokemon.getTypeId() == null) {
+            return Mono.just(pokemon);
+        }
+        return pokemonTypeRepository.nameOf(pokemon.getTypeId()).doOnNext(pokemon::setType).thenReturn(pokemon);
+    }
+}
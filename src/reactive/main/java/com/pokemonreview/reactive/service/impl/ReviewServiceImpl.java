@@ -0,0 +1,123 @@
+package com.pokemonreview.reactive.service.impl;
+
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.reactive.mapper.ReviewMapper;
+import com.pokemonreview.reactive.models.Review;
+import com.pokemonreview.reactive.repository.OutboxEventRepository;
+import com.pokemonreview.reactive.repository.PokemonRepository;
+import com.pokemonreview.reactive.repository.RatingRollupRepository;
+import com.pokemonreview.reactive.repository.ReviewRepository;
+import com.pokemonreview.reactive.service.ReviewService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Service
+public class ReviewServiceImpl implements ReviewService {
+    private ReviewRepository reviewRepository;
+    private PokemonRepository pokemonRepository;
+    private RatingRollupRepository ratingRollupRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private TransactionalOperator transactionalOperator;
+    private ReviewMapper reviewMapper = ReviewMapper.INSTANCE;
+
+    @Autowired
+    public ReviewServiceImpl(ReviewRepository reviewRepository, PokemonRepository pokemonRepository,
+                             RatingRollupRepository ratingRollupRepository,
+                             OutboxEventRepository outboxEventRepository, TransactionalOperator transactionalOperator) {
+        this.reviewRepository = reviewRepository;
+        this.pokemonRepository = pokemonRepository;
+        this.ratingRollupRepository = ratingRollupRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<ReviewDto> createReview(int pokemonId, ReviewDto reviewDto) {
+        // created_at stays empty, so the review stays out of the rating rollups, which count exactly the reviews that
+        // have a creation time; reviews the servlet application created are kept in step on update and delete
+        Review review = reviewMapper.toEntity(reviewDto);
+
+        Mono<ReviewDto> create = pokemonRepository.existsById(pokemonId)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new PokemonNotFoundException("Pokemon with associated review not found"));
+                    }
+                    review.setPokemonId(pokemonId);
+                    return reviewRepository.save(review);
+                })
+                .map(reviewMapper::toDto)
+                .flatMap(created -> outboxEventRepository
+                        .reviewChanged(ChangeType.CREATED, pokemonId, created.getId(), created)
+                        .thenReturn(created));
+        return transactionalOperator.transactional(create);
+    }
+
+    @Override
+    public Flux<ReviewDto> getReviewsByPokemonId(int id) {
+        return reviewRepository.findByPokemonId(id).map(reviewMapper::toDto);
+    }
+
+    @Override
+    public Mono<ReviewDto> getReviewById(int pokemonId, int reviewId) {
+        return findReviewOfPokemon(pokemonId, reviewId).map(reviewMapper::toDto);
+    }
+
+    @Override
+    public Mono<ReviewDto> updateReview(int pokemonId, int reviewId, ReviewDto reviewDto) {
+        Mono<ReviewDto> update = findReviewOfPokemon(pokemonId, reviewId)
+                .flatMap(review -> {
+                    if (reviewDto.getVersion() != null && !reviewDto.getVersion().equals(review.getVersion())) {
+                        return Mono.error(new VersionMismatchException("Review was modified by another request"));
+                    }
+                    int oldStars = review.getStars();
+                    review.setTitle(reviewDto.getTitle());
+                    review.setContent(reviewDto.getContent());
+                    review.setStars(reviewDto.getStars() == null ? 0 : reviewDto.getStars());
+                    review.setUpdatedAt(Instant.now());
+                    return reviewRepository.save(review).flatMap(saved -> ratingRollupRepository
+                            .increment(pokemonId, saved.getCreatedAt(), 0, (long) saved.getStars() - oldStars)
+                            .thenReturn(saved));
+                })
+                .map(reviewMapper::toDto)
+                .flatMap(updated -> outboxEventRepository
+                        .reviewChanged(ChangeType.UPDATED, pokemonId, reviewId, updated)
+                        .thenReturn(updated));
+        return transactionalOperator.transactional(update).retryWhen(ConflictRetry.optimisticLocking());
+    }
+
+    @Override
+    public Mono<Void> deleteReview(int pokemonId, int reviewId) {
+        Mono<Void> delete = findReviewOfPokemon(pokemonId, reviewId)
+                .flatMap(review -> reviewRepository.delete(review)
+                        .then(ratingRollupRepository.increment(pokemonId, review.getCreatedAt(),
+                                -1, -review.getStars()))
+                        .then(outboxEventRepository.reviewChanged(ChangeType.DELETED, pokemonId, reviewId, null)));
+        return transactionalOperator.transactional(delete);
+    }
+
+    private Mono<Review> findReviewOfPokemon(int pokemonId, int reviewId) {
+        return pokemonRepository.existsById(pokemonId)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new PokemonNotFoundException("Pokemon with associated review not found"));
+                    }
+                    return reviewRepository.findById(reviewId)
+                            .switchIfEmpty(Mono.error(() -> new ReviewNotFoundException("Review with associate pokemon not found")));
+                })
+                .flatMap(review -> {
+                    if (review.getPokemonId() == null || review.getPokemonId() != pokemonId) {
+                        return Mono.error(new ReviewNotFoundException("This review does not belong to a pokemon"));
+                    }
+                    return Mono.just(review);
+                });
+    }
+}
@@ -0,0 +1,229 @@
+package com.pokemonreview.reactive.controller;
+
+import com.pokemonreview.api.dto.LoginDto;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.RegisterDto;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.reactive.ReactiveApplication;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@SpringBootTest(classes = ReactiveApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.name=reactive",
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivetest;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "app.reactive.schema.init=true"
+})
+public class ReactiveApiTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private String token;
+
+    @BeforeEach
+    public void init() {
+        String username = "user-" + UUID.randomUUID();
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setUsername(username);
+        registerDto.setPassword("password");
+        webTestClient.post().uri("/api/auth/register").bodyValue(registerDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        LoginDto loginDto = new LoginDto();
+        loginDto.setUsername(username);
+        loginDto.setPassword("password");
+        token = webTestClient.post().uri("/api/auth/login").bodyValue(loginDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody().get("accessToken").toString();
+    }
+
+    @Test
+    public void getAllPokemon_noToken_returnUnauthorized() {
+        webTestClient.get().uri("/api/pokemon")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void createPokemon_withReview_returnPokemonAndReviews() {
+        PokemonDto pokemonDto = PokemonDto.builder().name("pikachu").type("electric").build();
+        PokemonDto created = webTestClient.post().uri("/api/pokemon/create")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(pokemonDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PokemonDto.class)
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(created.getId()).isNotNull();
+        Assertions.assertThat(created.getName()).isEqualTo("pikachu");
+
+        webTestClient.get().uri("/api/pokemon/{id}", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.type").isEqualTo("electric");
+
+        ReviewDto reviewDto = ReviewDto.builder().title("title").content("content").stars(5).build();
+        webTestClient.post().uri("/api/pokemon/{id}/reviews", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(reviewDto)
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/pokemon/{id}/reviews", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReviewDto.class).hasSize(1);
+    }
+
+    @Test
+    public void updatePokemon_existingPokemon_returnUpdatedPokemon() {
+        PokemonDto created = webTestClient.post().uri("/api/pokemon/create")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(PokemonDto.builder().name("bulbasaur").type("grass").build())
+                .exchange()
+                .expectBody(PokemonDto.class)
+                .returnResult().getResponseBody();
+
+        webTestClient.put().uri("/api/pokemon/{id}/update", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(PokemonDto.builder().name("ivysaur").type("grass").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("ivysaur");
+
+        webTestClient.delete().uri("/api/pokemon/{id}/delete", created.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void getPokemonById_missingPokemon_returnNotFound() {
+        webTestClient.get().uri("/api/pokemon/{id}", 999999)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void updateAndDeleteReview_timestampedReview_keepsRollupsInStep() {
+        PokemonDto pokemon = webTestClient.post().uri("/api/pokemon/create")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(PokemonDto.builder().name("eevee").type("normal").build())
+                .exchange()
+                .expectBody(PokemonDto.class)
+                .returnResult().getResponseBody();
+        // a review the servlet application created, already counted in its rollup buckets
+        Instant createdAt = Instant.parse("2024-05-01T10:15:00Z");
+        Integer reviewId = databaseClient.sql("INSERT INTO review "
+                        + "(title, content, stars, pokemon_id, created_at, updated_at) "
+                        + "VALUES ('title', 'content', 3, :pokemonId, :createdAt, :createdAt)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("pokemonId", pokemon.getId())
+                .bind("createdAt", LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            databaseClient.sql("INSERT INTO rating_rollup "
+                            + "(pokemon_id, granularity, bucket_start, review_count, stars_total) "
+                            + "VALUES (:pokemonId, :granularity, :bucketStart, 1, 3)")
+                    .bind("pokemonId", pokemon.getId())
+                    .bind("granularity", granularity.name())
+                    .bind("bucketStart",
+                            LocalDateTime.ofInstant(granularity.bucketOf(createdAt), ZoneId.systemDefault()))
+                    .then()
+                    .block();
+        }
+
+        webTestClient.put().uri("/api/pokemon/{pokemonId}/reviews/{id}", pokemon.getId(), reviewId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(ReviewDto.builder().title("title").content("better").stars(5).build())
+                .exchange()
+                .expectStatus().isOk();
+        Assertions.assertThat(rollups(pokemon.getId())).containsExactly(List.of(1L, 5L), List.of(1L, 5L));
+
+        webTestClient.delete().uri("/api/pokemon/{pokemonId}/reviews/{id}", pokemon.getId(), reviewId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+        Assertions.assertThat(rollups(pokemon.getId())).containsExactly(List.of(0L, 0L), List.of(0L, 0L));
+    }
+
+    @Test
+    public void pokemonAndReviewWrites_writeOutboxEvents() {
+        PokemonDto pokemon = webTestClient.post().uri("/api/pokemon/create")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(PokemonDto.builder().name("vulpix").type("fire").build())
+                .exchange()
+                .expectBody(PokemonDto.class)
+                .returnResult().getResponseBody();
+        ReviewDto review = webTestClient.post().uri("/api/pokemon/{id}/reviews", pokemon.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(ReviewDto.builder().title("title").content("content").stars(4).build())
+                .exchange()
+                .expectBody(ReviewDto.class)
+                .returnResult().getResponseBody();
+        webTestClient.put().uri("/api/pokemon/{pokemonId}/reviews/{id}", pokemon.getId(), review.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .bodyValue(ReviewDto.builder().title("title").content("content").stars(2).build())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/pokemon/{pokemonId}/reviews/{id}", pokemon.getId(), review.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/api/pokemon/{id}/delete", pokemon.getId())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+
+        List<String> events = databaseClient.sql("SELECT aggregate_type, event_type, payload FROM outbox_event "
+                        + "WHERE pokemon_id = :pokemonId ORDER BY id")
+                .bind("pokemonId", pokemon.getId())
+                .map(row -> row.get("aggregate_type", String.class) + " " + row.get("event_type", String.class)
+                        + (row.get("payload", String.class) == null ? "" : " with payload"))
+                .all()
+                .collectList()
+                .block();
+        Assertions.assertThat(events).containsExactly("pokemon CREATED with payload", "review CREATED with payload",
+                "review UPDATED with payload", "review DELETED", "pokemon DELETED");
+    }
+
+    private List<List<Long>> rollups(int pokemonId) {
+        return databaseClient.sql("SELECT review_count, stars_total FROM rating_rollup WHERE pokemon_id = :pokemonId")
+                .bind("pokemonId", pokemonId)
+                .map(row -> List.of(row.get("review_count", Long.class), row.get("stars_total", Long.class)))
+                .all()
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,76 @@
+package com.pokemonreview.api.capture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CaptureLogTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void read_writtenRequests_returnsThemUnchanged() throws IOException {
+        CapturedRequest login = request(1_700_000_000_000_000L, "POST", "/api/auth/login", null, "{\"username\":\"ash\"}");
+        login.setAuthenticated(false);
+        // completed before the request that started earlier, so the start goes backwards
+        CapturedRequest browse = request(1_699_999_999_990_000L, "GET", "/api/pokemon", "pageNo=0&pageSize=10", "");
+        browse.setTruncated(true);
+        CaptureLogWriter writer = new CaptureLogWriter(directory, 1024 * 1024, 10);
+        writer.write(login);
+        writer.write(browse);
+        writer.close();
+
+        assertThat(readAll()).usingRecursiveFieldByFieldElementComparator().containsExactly(login, browse);
+    }
+
+    @Test
+    public void write_fileFull_rotatesAndKeepsNewestFiles() throws IOException {
+        CaptureLogWriter writer = new CaptureLogWriter(directory, 200, 2);
+        List<CapturedRequest> written = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            CapturedRequest request = request(1_700_000_000_000_000L + i * 1000L, "GET", "/api/pokemon/" + i, null, "");
+            writer.write(request);
+            written.add(request);
+        }
+        writer.close();
+
+        List<CapturedRequest> read = readAll();
+        assertThat(CaptureLogReader.files(directory)).hasSize(2);
+        assertThat(read).isNotEmpty().hasSizeLessThan(written.size());
+        assertThat(read).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(written.subList(written.size() - read.size(), written.size()));
+    }
+
+    private List<CapturedRequest> readAll() throws IOException {
+        List<CapturedRequest> requests = new ArrayList<>();
+        try (CaptureLogReader reader = new CaptureLogReader(directory)) {
+            CapturedRequest request;
+            while ((request = reader.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    private static CapturedRequest request(long startedAt, String method, String path, String query, String body) {
+        return CapturedRequest.builder()
+                .startedAt(startedAt)
+                .duration(1234)
+                .method(method)
+                .path(path)
+                .query(query)
+                .status(200)
+                .authenticated(true)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.pokemonreview.api.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TrafficCaptureFilterTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private TrafficCapture trafficCapture;
+
+    @Test
+    public void doFilter_login_replacesPassword() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent("{\"username\":\"ash\",\"password\":\"pikachu\"}".getBytes(StandardCharsets.UTF_8));
+
+        CapturedRequest captured = filter(request, 8192);
+
+        assertThat(captured.getMethod()).isEqualTo("POST");
+        assertThat(captured.isAuthenticated()).isFalse();
+        assertThat(objectMapper.readTree(captured.getBody()).get("username").asText()).isEqualTo("ash");
+        assertThat(objectMapper.readTree(captured.getBody()).get("password").asText()).isEqualTo(TrafficCaptureFilter.PASSWORD_PLACEHOLDER);
+        assertThat(new String(captured.getBody(), StandardCharsets.UTF_8)).doesNotContain("pikachu");
+    }
+
+    @Test
+    public void doFilter_authenticatedRequest_recordsQueryWithoutToken() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pokemon");
+        request.setQueryString("pageNo=1&pageSize=5");
+        request.addHeader("Authorization", "Bearer secret-token");
+
+        CapturedRequest captured = filter(request, 8192);
+
+        assertThat(captured.getPath()).isEqualTo("/api/pokemon");
+        assertThat(captured.getQuery()).isEqualTo("pageNo=1&pageSize=5");
+        assertThat(captured.getStatus()).isEqualTo(200);
+        assertThat(captured.isAuthenticated()).isTrue();
+        assertThat(captured.getBody()).isEmpty();
+    }
+
+    @Test
+    public void doFilter_bodyOverLimit_marksTruncated() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/pokemon/7/reviews");
+        request.setContentType("application/json");
+        request.setContent("{\"title\":\"great\",\"stars\":5}".getBytes(StandardCharsets.UTF_8));
+
+        CapturedRequest captured = filter(request, 10);
+
+        assertThat(captured.isTruncated()).isTrue();
+        assertThat(captured.getBody()).hasSize(10);
+    }
+
+    @Test
+    public void doFilter_truncatedLogin_dropsPassword() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent("{\"username\":\"ash\",\"password\":\"pikachu\"}".getBytes(StandardCharsets.UTF_8));
+
+        CapturedRequest captured = filter(request, 35);
+
+        assertThat(captured.isTruncated()).isTrue();
+        assertThat(captured.getBody()).isEmpty();
+    }
+
+    @Test
+    public void doFilter_reviewStream_isNotCaptured() throws ServletException, IOException {
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(trafficCapture, objectMapper, 8192);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/pokemon/7/reviews/stream"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(trafficCapture, never()).offer(any());
+    }
+
+    private CapturedRequest filter(MockHttpServletRequest request, int maxBodySize) throws ServletException, IOException {
+        TrafficCaptureFilter filter = new TrafficCaptureFilter(trafficCapture, objectMapper, maxBodySize);
+        // the body is only cached once the application reads it
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                req.getInputStream().readAllBytes();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<CapturedRequest> captured = ArgumentCaptor.forClass(CapturedRequest.class);
+        verify(trafficCapture).offer(captured.capture());
+        return captured.getValue();
+    }
+}
@@ -0,0 +1,102 @@
+package com.pokemonreview.api.catalog;
+
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.api.reference.PokemonTypeDictionary;
+import com.pokemonreview.api.repository.PokemonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+public class PokemonCatalogTests {
+
+    @Mock
+    private PokemonRepository pokemonRepository;
+
+    @Mock
+    private PokemonTypeDictionary pokemonTypes;
+
+    private PokemonCatalog catalog;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(pokemonTypes.codeOf(anyString())).then(invocation -> (short) invocation.<String>getArgument(0).length());
+        lenient().when(pokemonTypes.nameOf(anyShort())).then(invocation -> invocation.<Short>getArgument(0) == 8 ? "electric" : "fire");
+        catalog = new PokemonCatalog(pokemonRepository, pokemonTypes);
+    }
+
+    @Test
+    public void getAllPokemon_afterRebuild_returnsPagesInIdOrder() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            rows.add(new Object[]{id, "pokemon-" + id, id % 2 == 0 ? "electric" : "fire", 0});
+        }
+        given(pokemonRepository.findColumnsAfter(eq(0), any(Pageable.class))).willReturn(rows);
+        catalog.rebuild();
+
+        PokemonResponse page = catalog.getAllPokemon(2, 10);
+
+        assertThat(page.getContent()).extracting(PokemonDto::getId).containsExactly(21, 22, 23, 24, 25);
+        assertThat(page.getContent().get(1).getType()).isEqualTo("electric");
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.isLast()).isTrue();
+        assertThat(catalog.getPokemonById(3).getName()).isEqualTo("pokemon-3");
+    }
+
+    @Test
+    public void onEntityChanged_createUpdateDelete_followsWrites() {
+        catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.CREATED, 1, pokemon(1, "pikachu", "electric", 0)));
+        catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.CREATED, 2, pokemon(2, "charmander", "fire", 0)));
+        catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.UPDATED, 1, pokemon(1, "raichu", "electric", 1)));
+        catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.DELETED, 2, null));
+
+        PokemonDto pokemon = catalog.getPokemonById(1);
+        assertThat(pokemon.getName()).isEqualTo("raichu");
+        assertThat(pokemon.getVersion()).isEqualTo(1);
+        assertThat(catalog.getAllPokemon(0, 10).getTotalElements()).isEqualTo(1);
+        assertThatThrownBy(() -> catalog.getPokemonById(2)).isInstanceOf(PokemonNotFoundException.class);
+    }
+
+    @Test
+    public void rebuild_changesDuringRead_areKept() {
+        given(pokemonRepository.findColumnsAfter(anyInt(), any(Pageable.class))).willAnswer(invocation -> {
+            // committed after the rows below were read
+            catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.UPDATED, 1, pokemon(1, "raichu", "electric", 1)));
+            catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.DELETED, 2, null));
+            catalog.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.CREATED, 3, pokemon(3, "vulpix", "fire", 0)));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{1, "pikachu", "electric", 0});
+            rows.add(new Object[]{2, "charmander", "fire", 0});
+            return rows;
+        });
+
+        catalog.rebuild();
+
+        assertThat(catalog.getAllPokemon(0, 10).getContent()).extracting(PokemonDto::getName).containsExactly("raichu", "vulpix");
+    }
+
+    private static PokemonDto pokemon(int id, String name, String type, int version) {
+        return PokemonDto.builder().id(id).name(name).type(type).version(version).build();
+    }
+}
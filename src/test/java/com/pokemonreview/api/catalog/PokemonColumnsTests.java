@@ -0,0 +1,90 @@
+package com.pokemonreview.api.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PokemonColumnsTests {
+
+    @Test
+    public void upsert_idsOutOfOrder_keepsRowsSortedById() {
+        PokemonColumns columns = new PokemonColumns(0);
+        for (int id = 100; id > 0; id -= 3) {
+            columns.upsert(id, "pokemon-" + id, (short) 1, 0);
+        }
+        columns.upsert(50, "inserted", (short) 2, 0);
+
+        assertThat(columns.size()).isEqualTo(35);
+        for (int row = 1; row < columns.size(); row++) {
+            assertThat(columns.id(row)).isGreaterThan(columns.id(row - 1));
+        }
+        int row = columns.indexOf(50);
+        assertThat(columns.name(row)).isEqualTo("inserted");
+        assertThat(columns.typeCode(row)).isEqualTo((short) 2);
+        assertThat(columns.name(columns.indexOf(49))).isEqualTo("pokemon-49");
+        assertThat(columns.indexOf(51)).isNegative();
+    }
+
+    @Test
+    public void upsert_olderVersion_isIgnored() {
+        PokemonColumns columns = new PokemonColumns(0);
+        columns.upsert(1, "pikachu", (short) 1, 2);
+
+        assertThat(columns.upsert(1, "stale", (short) 1, 1)).isFalse();
+        assertThat(columns.upsert(1, "raichu", PokemonColumns.NO_TYPE, 3)).isTrue();
+
+        assertThat(columns.name(0)).isEqualTo("raichu");
+        assertThat(columns.typeCode(0)).isEqualTo(PokemonColumns.NO_TYPE);
+        assertThat(columns.version(0)).isEqualTo(3);
+    }
+
+    @Test
+    public void remove_middleRow_shiftsTheRest() {
+        PokemonColumns columns = new PokemonColumns(0);
+        columns.upsert(1, "bulbasaur", (short) 1, 0);
+        columns.upsert(2, "ivysaur", (short) 1, 0);
+        columns.upsert(3, null, (short) 1, 0);
+
+        assertThat(columns.remove(2)).isTrue();
+        assertThat(columns.remove(2)).isFalse();
+
+        assertThat(columns.size()).isEqualTo(2);
+        assertThat(columns.id(1)).isEqualTo(3);
+        assertThat(columns.name(1)).isNull();
+    }
+
+    @Test
+    public void upsert_repeatedNames_storesEachNameOnce() {
+        PokemonColumns columns = new PokemonColumns(0);
+        for (int id = 1; id <= 10_000; id++) {
+            columns.upsert(id, "name-" + (id % 1000) + "-é", (short) 1, 0);
+        }
+
+        assertThat(columns.distinctNames()).isEqualTo(1000);
+        assertThat(columns.name(columns.indexOf(4321))).isEqualTo("name-321-é");
+        assertThat(columns.memoryBytes()).isLessThan(14L * 10_000 * 3 / 2 + 64 * 1024);
+    }
+
+    @Test
+    public void fromSnapshot_writtenColumns_readsThemBack() {
+        PokemonColumns columns = new PokemonColumns(0);
+        for (int id = 1; id <= 1000; id += 2) {
+            columns.upsert(id, id % 3 == 0 ? null : "pokemon-" + (id % 100), (short) (id % 7), id % 5);
+        }
+
+        ByteBuffer snapshot = columns.toSnapshot();
+        PokemonColumns restored = PokemonColumns.fromSnapshot(ByteBuffer.allocate(snapshot.remaining() + 1).position(1).put(snapshot).position(1));
+
+        assertThat(restored.size()).isEqualTo(columns.size());
+        assertThat(restored.versionSum()).isEqualTo(columns.versionSum());
+        for (int row = 0; row < columns.size(); row++) {
+            assertThat(restored.id(row)).isEqualTo(columns.id(row));
+            assertThat(restored.name(row)).isEqualTo(columns.name(row));
+            assertThat(restored.typeCode(row)).isEqualTo(columns.typeCode(row));
+        }
+        restored.upsert(2, "pokemon-1", (short) 1, 0);
+        assertThat(restored.distinctNames()).isEqualTo(columns.distinctNames());
+    }
+}
@@ -0,0 +1,88 @@
+package com.pokemonreview.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistentHashRingTests {
+
+    private static final int KEYS = 10000;
+
+    @Test
+    public void shardFor_sameId_returnSameShard() {
+        ConsistentHashRing ring = ring("a", "b", "c");
+
+        assertThat(ring.shardFor(42)).isEqualTo(ring("a", "b", "c").shardFor(42));
+    }
+
+    @Test
+    public void shardFor_sequentialIds_spreadEvenly() {
+        ConsistentHashRing ring = ring("a", "b", "c", "d");
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int id = 1; id <= KEYS; id++) {
+            counts.merge(ring.shardFor(id), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(4);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4 * 3 / 4, KEYS / 4 * 5 / 4));
+    }
+
+    @Test
+    public void shardFor_addedShard_movesOnlyKeysToNewShard() {
+        ConsistentHashRing before = ring("a", "b", "c");
+        ConsistentHashRing after = ring("a", "b", "c", "d");
+
+        int moved = 0;
+        for (int id = 1; id <= KEYS; id++) {
+            String owner = after.shardFor(id);
+            if (!owner.equals(before.shardFor(id))) {
+                assertThat(owner).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(KEYS / 4 * 3 / 4, KEYS / 4 * 5 / 4);
+    }
+
+    @Test
+    public void shardFor_doubleWeight_ownsAboutTwiceTheKeys() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("small", 1);
+        weights.put("large", 2);
+        ConsistentHashRing ring = new ConsistentHashRing(weights, 128);
+
+        long large = IntStream.rangeClosed(1, KEYS).filter(id -> ring.shardFor(id).equals("large")).count();
+
+        assertThat(large).isBetween(KEYS * 2L / 3 * 9 / 10, KEYS * 2L / 3 * 11 / 10);
+    }
+
+    @Test
+    public void partition_ids_groupByShardInOrder() {
+        ConsistentHashRing ring = ring("a", "b", "c");
+        List<Integer> ids = IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+
+        Map<String, List<Integer>> partitions = ring.partition(ids);
+
+        assertThat(partitions.values().stream().mapToInt(List::size).sum()).isEqualTo(100);
+        partitions.forEach((shard, shardIds) -> {
+            assertThat(shardIds).isSorted();
+            assertThat(shardIds).allSatisfy(id -> assertThat(ring.shardFor(id)).isEqualTo(shard));
+        });
+    }
+
+    private ConsistentHashRing ring(String... shards) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String shard : shards) {
+            weights.put(shard, 1);
+        }
+        return new ConsistentHashRing(weights, 128);
+    }
+}
@@ -0,0 +1,127 @@
+package com.pokemonreview.api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicationRoutingDataSourceTests {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    public void init() {
+        primary = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName("primary").build();
+        replica = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName("replica").build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    public void getConnection_noTransaction_routesToPrimary() throws SQLException {
+        ReplicationRoutingDataSource dataSource = routingDataSource(Duration.ZERO);
+
+        assertThat(databaseName(dataSource)).contains("primary");
+    }
+
+    @Test
+    public void getConnection_readOnlyTransaction_routesToReplica() throws SQLException {
+        ReplicationRoutingDataSource dataSource = routingDataSource(Duration.ZERO);
+
+        beginTransaction(true);
+
+        assertThat(databaseName(dataSource)).contains("replica");
+    }
+
+    @Test
+    public void getConnection_readWriteTransaction_routesToPrimary() throws SQLException {
+        ReplicationRoutingDataSource dataSource = routingDataSource(Duration.ZERO);
+
+        beginTransaction(false);
+
+        assertThat(databaseName(dataSource)).contains("primary");
+    }
+
+    @Test
+    public void getConnection_readOnlyWithinLagWindowAfterWrite_routesToPrimary() throws SQLException {
+        ReplicationRoutingDataSource dataSource = routingDataSource(Duration.ofMinutes(1));
+
+        beginTransaction(false);
+        assertThat(databaseName(dataSource)).contains("primary");
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        beginTransaction(true);
+        assertThat(databaseName(dataSource)).contains("primary");
+    }
+
+    @Test
+    public void getConnection_readOnlyWhileWriteUncommitted_routesToReplica() throws SQLException {
+        ReplicationRoutingDataSource dataSource = routingDataSource(Duration.ofMinutes(1));
+
+        beginTransaction(false);
+        assertThat(databaseName(dataSource)).contains("primary");
+        assertThat(databaseName(dataSource)).contains("primary");
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        beginTransaction(true);
+        assertThat(databaseName(dataSource)).contains("replica");
+    }
+
+    private ReplicationRoutingDataSource routingDataSource(Duration maxLag) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceType.PRIMARY, primary);
+        targets.put(DataSourceType.REPLICA, replica);
+
+        ReplicationRoutingDataSource dataSource = new ReplicationRoutingDataSource(maxLag);
+        dataSource.setTargetDataSources(targets);
+        dataSource.setDefaultTargetDataSource(primary);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private String databaseName(ReplicationRoutingDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.pokemonreview.api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardTemplateTests {
+
+    private static final String SCHEMA = "CREATE TABLE review (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, pokemon_id INTEGER)";
+
+    private EmbeddedDatabase primary;
+    private Map<String, EmbeddedDatabase> shards;
+    private ConsistentHashRing ring;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private ShardTemplate shardTemplate;
+
+    @BeforeEach
+    public void init() {
+        primary = database("primary");
+        shards = new LinkedHashMap<>();
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String name : Arrays.asList("shard-a", "shard-b", "shard-c")) {
+            shards.put(name, database(name));
+            weights.put(name, 1);
+        }
+        ring = new ConsistentHashRing(weights, 128);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(primary, Map.copyOf(shards)));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        shardTemplate = new ShardTemplate(transactionManager, ring);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shardTemplate.shutdown();
+        primary.shutdown();
+        shards.values().forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    public void write_pokemonId_insertsIntoOwningShardOnly() {
+        for (int pokemonId = 1; pokemonId <= 30; pokemonId++) {
+            insertReview(pokemonId);
+        }
+
+        for (int pokemonId = 1; pokemonId <= 30; pokemonId++) {
+            String owner = ring.shardFor(pokemonId);
+            for (Map.Entry<String, EmbeddedDatabase> shard : shards.entrySet()) {
+                Integer count = new JdbcTemplate(shard.getValue())
+                        .queryForObject("SELECT COUNT(*) FROM review WHERE pokemon_id = ?", Integer.class, pokemonId);
+                assertThat(count).isEqualTo(shard.getKey().equals(owner) ? 1 : 0);
+            }
+        }
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM review", Integer.class)).isZero();
+    }
+
+    @Test
+    public void write_withinPrimaryTransaction_runsOnShardAndResumesPrimary() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO review (pokemon_id) VALUES (?)", 0);
+            insertReview(7);
+            jdbcTemplate.update("INSERT INTO review (pokemon_id) VALUES (?)", 0);
+        });
+
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM review", Integer.class)).isEqualTo(2);
+        assertThat(new JdbcTemplate(shards.get(ring.shardFor(7))).queryForObject("SELECT COUNT(*) FROM review", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    public void readAll_idsOnSeveralShards_gatherFromEveryShard() {
+        List<Integer> pokemonIds = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        pokemonIds.forEach(this::insertReview);
+        assertThat(ring.partition(pokemonIds)).hasSize(3);
+
+        List<Integer> found = shardTemplate.readAll(pokemonIds, ids -> jdbcTemplate.queryForList(
+                "SELECT pokemon_id FROM review WHERE pokemon_id IN (" + String.join(",", ids.stream().map(String::valueOf).toArray(String[]::new)) + ")",
+                Integer.class));
+
+        assertThat(found).containsExactlyInAnyOrderElementsOf(pokemonIds);
+    }
+
+    @Test
+    public void readAll_failingShard_rethrowsCause() {
+        assertThatThrownBy(() -> shardTemplate.readAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ids -> {
+            throw new IllegalStateException("shard down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("shard down");
+    }
+
+    private void insertReview(int pokemonId) {
+        shardTemplate.write(pokemonId, () -> jdbcTemplate.update("INSERT INTO review (pokemon_id) VALUES (?)", pokemonId));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).setName(name).build();
+        new JdbcTemplate(database).execute(SCHEMA);
+        return database;
+    }
+}
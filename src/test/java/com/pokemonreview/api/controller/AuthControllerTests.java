@@ -0,0 +1,93 @@
+package com.pokemonreview.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.config.JacksonConfig;
+import com.pokemonreview.api.controllers.AuthController;
+import com.pokemonreview.api.dto.RegisterDto;
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.reference.RoleRegistry;
+import com.pokemonreview.api.repository.UserRepository;
+import com.pokemonreview.api.security.JWTGenerator;
+import com.pokemonreview.api.users.UsernameAvailability;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(controllers = AuthController.class)
+@Import(JacksonConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private AuthenticationManager authenticationManager;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private RoleRegistry roleRegistry;
+
+    @MockBean
+    private JWTGenerator jwtGenerator;
+
+    @MockBean
+    private UsernameAvailability usernameAvailability;
+
+    @Test
+    public void isUsernameAvailable_freeUsername_returnsAvailable() throws Exception {
+        given(usernameAvailability.isTaken("ash")).willReturn(false);
+
+        mockMvc.perform(get("/api/auth/username-available").param("username", "ash"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.username", CoreMatchers.is("ash")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.available", CoreMatchers.is(true)));
+    }
+
+    @Test
+    public void isUsernameAvailable_blankUsername_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/auth/username-available").param("username", " "))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void register_usernameTakenConcurrently_returnsBadRequest() throws Exception {
+        RegisterDto registerDto = new RegisterDto();
+        registerDto.setUsername("ash");
+        registerDto.setPassword("pikachu");
+        given(usernameAvailability.isTaken("ash")).willReturn(false);
+        given(roleRegistry.get("USER")).willReturn(new Role());
+        given(userRepository.save(any())).willThrow(new DataIntegrityViolationException("uk_users_username"));
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDto)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string("Username is taken!"));
+        verify(usernameAvailability).registered("ash");
+    }
+}
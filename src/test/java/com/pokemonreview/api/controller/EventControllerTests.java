@@ -0,0 +1,56 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.config.JacksonConfig;
+import com.pokemonreview.api.controllers.EventController;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.events.ChangeEventLog;
+import com.pokemonreview.api.models.ChangeType;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Collections;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = EventController.class)
+@Import(JacksonConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class EventControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeEventLog changeEventLog;
+
+    @Test
+    public void getEvents_fromOffset_returnEventsAndNextOffset() throws Exception {
+        ChangeEventDto event = ChangeEventDto.builder().offset(42).eventId("primary:7").aggregateType("pokemon")
+                .aggregateId(3).pokemonId(3).eventType(ChangeType.DELETED).build();
+        given(changeEventLog.read(42, 100)).willReturn(new ChangeEventResponse(Collections.singletonList(event), 43));
+
+        mockMvc.perform(get("/api/events").param("offset", "42"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.events[0].eventId", CoreMatchers.is("primary:7")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.events[0].eventType", CoreMatchers.is("DELETED")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextOffset", CoreMatchers.is(43)));
+    }
+
+    @Test
+    public void getEvents_limitAboveMax_capsLimit() throws Exception {
+        given(changeEventLog.read(0, 1000)).willReturn(new ChangeEventResponse(Collections.emptyList(), 0));
+
+        mockMvc.perform(get("/api/events").param("limit", "50000"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextOffset", CoreMatchers.is(0)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.config.JacksonConfig;
+import com.pokemonreview.api.controllers.LeaderboardController;
+import com.pokemonreview.api.dto.LeaderboardEntryDto;
+import com.pokemonreview.api.leaderboard.ReviewLeaderboard;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Collections;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = LeaderboardController.class)
+@Import(JacksonConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class LeaderboardControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewLeaderboard reviewLeaderboard;
+
+    @Test
+    public void getTopRated_defaultLimit_returnEntries() throws Exception {
+        LeaderboardEntryDto entry = LeaderboardEntryDto.builder().rank(1).pokemonId(25).name("pikachu")
+                .reviewCount(4).averageStars(4.5).build();
+        given(reviewLeaderboard.getTopRated(10)).willReturn(Collections.singletonList(entry));
+
+        mockMvc.perform(get("/api/leaderboard/top-rated"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name", CoreMatchers.is("pikachu")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].averageStars", CoreMatchers.is(4.5)));
+    }
+
+    @Test
+    public void getMostReviewed_limitAboveMax_capsLimit() throws Exception {
+        given(reviewLeaderboard.getMostReviewed(100)).willReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/leaderboard/most-reviewed").param("limit", "5000"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", CoreMatchers.is(0)));
+    }
+}
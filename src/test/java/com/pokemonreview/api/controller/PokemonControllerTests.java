@@ -2,7 +2,11 @@ package com.pokemonreview.api.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.pokemonreview.api.config.JacksonConfig;
 import com.pokemonreview.api.controllers.PokemonController;
+import com.pokemonreview.api.dto.PokemonBatchResponse;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
 import com.pokemonreview.api.dto.ReviewDto;
@@ -20,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,12 +32,15 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 @WebMvcTest(controllers = PokemonController.class)
+@Import(JacksonConfig.class)
 @AutoConfigureMockMvc(addFilters = false)
 @ExtendWith(MockitoExtension.class)
 public class PokemonControllerTests {
@@ -143,4 +151,134 @@ public class PokemonControllerTests {
         response.andExpect(MockMvcResultMatchers.status().isOk());
     }
 
+    @Test
+    public void updatePokemon_ifMatchHeader_passesVersionAndReturnsETag() throws Exception {
+        PokemonDto expected = PokemonDto.builder()
+                .name("pikachu")
+                .type("electric")
+                .version(3)
+                .build();
+        PokemonDto updated = PokemonDto.builder()
+                .name("pikachu")
+                .type("electric")
+                .version(4)
+                .build();
+        when(pokemonService.updatePokemon(expected, 1)).thenReturn(updated);
+
+        ResultActions response = mockMvc.perform(put("/api/pokemon/1/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("If-Match", "\"3\"")
+                .content(objectMapper.writeValueAsString(pokemonDto)));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    public void getAllPokemon_cborAccept_returnSmallerCborPayload() throws Exception {
+        PokemonResponse pr = PokemonResponse.builder().pageSize(10).pageNo(1)
+                .last(true).content(Arrays.asList(pokemonDto, pokemonDto)).build();
+        when(pokemonService.getAllPokemon(1, 10)).thenReturn(pr);
+
+        byte[] json = mockMvc.perform(get("/api/pokemon")
+                        .param("pageNo", "1")
+                        .param("pageSize", "10"))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/pokemon")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .param("pageNo", "1")
+                        .param("pageSize", "10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Assertions.assertThat(new CBORMapper().readValue(cbor, PokemonResponse.class)).isEqualTo(pr);
+        Assertions.assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    public void createPokemon_smileBody_returnSmilePokemon() throws Exception {
+        SmileMapper smileMapper = new SmileMapper();
+        given(pokemonService.createPokemon(ArgumentMatchers.any(PokemonDto.class)))
+                .willAnswer((invocation -> invocation.getArguments()[0]));
+
+        byte[] smile = mockMvc.perform(post("/api/pokemon/create")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(pokemonDto)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Assertions.assertThat(smileMapper.readValue(smile, PokemonDto.class)).isEqualTo(pokemonDto);
+    }
+
+    @Test
+    public void getAllPokemon_fieldsParam_returnOnlyRequestedFields() throws Exception {
+        PokemonResponse pr = PokemonResponse.builder().pageSize(10).pageNo(1)
+                .last(true).content(Arrays.asList(PokemonDto.builder().id(1).name("pikachu").build())).build();
+        when(pokemonService.getAllPokemon(1, 10, Set.of("id", "name"))).thenReturn(pr);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon")
+                .param("pageNo", "1")
+                .param("pageSize", "10")
+                .param("fields", "id,name"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("pikachu")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].type").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].version").doesNotExist());
+    }
+
+    @Test
+    public void getAllPokemon_withoutFields_keepsNullFields() throws Exception {
+        PokemonResponse pr = PokemonResponse.builder().pageSize(10).pageNo(1)
+                .last(true).content(Arrays.asList(PokemonDto.builder().id(1).name("pikachu").build())).build();
+        when(pokemonService.getAllPokemon(1, 10)).thenReturn(pr);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon")
+                .param("pageNo", "1")
+                .param("pageSize", "10"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].type").value(CoreMatchers.nullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].version").value(CoreMatchers.nullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].reviews").doesNotExist());
+    }
+
+    @Test
+    public void getPokemonBatch_validInput_returnBatchResponse() throws Exception {
+        PokemonBatchResponse batch = PokemonBatchResponse.builder()
+                .content(Arrays.asList(PokemonDto.builder().id(2).name("squirtle").type("water").build()))
+                .missingIds(Arrays.asList(9))
+                .build();
+        when(pokemonService.getPokemonByIds(List.of(2, 9))).thenReturn(batch);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon/batch")
+                .param("ids", "2,9"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.is("squirtle")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]", CoreMatchers.is(9)));
+    }
+
+    @Test
+    public void getAllPokemon_includeReviews_returnEmbeddedReviews() throws Exception {
+        PokemonDto withReviews = PokemonDto.builder().id(1).name("pikachu").type("electric")
+                .reviews(Arrays.asList(reviewDto)).build();
+        PokemonResponse pr = PokemonResponse.builder().pageSize(10).pageNo(1)
+                .last(true).content(Arrays.asList(withReviews)).build();
+        when(pokemonService.getAllPokemonWithReviews(1, 10, 3)).thenReturn(pr);
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon")
+                .param("pageNo", "1")
+                .param("pageSize", "10")
+                .param("include", "reviews")
+                .param("reviewLimit", "3"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].reviews[0].title", CoreMatchers.is(reviewDto.getTitle())));
+    }
+
 }
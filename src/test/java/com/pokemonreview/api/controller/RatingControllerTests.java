@@ -0,0 +1,75 @@
+package com.pokemonreview.api.controller;
+
+import com.pokemonreview.api.config.JacksonConfig;
+import com.pokemonreview.api.controllers.RatingController;
+import com.pokemonreview.api.dto.RatingBucketDto;
+import com.pokemonreview.api.dto.TrendingPokemonDto;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.service.RatingService;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(controllers = RatingController.class)
+@Import(JacksonConfig.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class RatingControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RatingService ratingService;
+
+    @Test
+    public void getRatingHistory_dayGranularity_returnBuckets() throws Exception {
+        Instant from = Instant.parse("2026-10-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-03T00:00:00Z");
+        RatingBucketDto bucket = RatingBucketDto.builder().bucketStart(from).reviewCount(4).averageStars(3.5).build();
+        given(ratingService.getRatingHistory(25, RollupGranularity.DAY, from, to)).willReturn(Collections.singletonList(bucket));
+
+        mockMvc.perform(get("/api/pokemon/25/ratings/history")
+                        .param("granularity", "day")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].reviewCount", CoreMatchers.is(4)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].averageStars", CoreMatchers.is(3.5)));
+    }
+
+    @Test
+    public void getRatingHistory_unknownGranularity_returnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/pokemon/25/ratings/history").param("granularity", "week"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        verify(ratingService, never()).getRatingHistory(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    public void getTrending_largeWindowAndLimit_cappedToMaximum() throws Exception {
+        TrendingPokemonDto entry = TrendingPokemonDto.builder().rank(1).pokemonId(25).name("pikachu")
+                .reviewCount(12).score(9.5).build();
+        given(ratingService.getTrending(168, 100)).willReturn(Collections.singletonList(entry));
+
+        mockMvc.perform(get("/api/pokemon/trending").param("window", "1000").param("limit", "1000"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name", CoreMatchers.is("pikachu")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].reviewCount", CoreMatchers.is(12)));
+    }
+}
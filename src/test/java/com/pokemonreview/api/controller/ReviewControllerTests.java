@@ -1,12 +1,16 @@
 package com.pokemonreview.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.pokemonreview.api.config.JacksonConfig;
 import com.pokemonreview.api.controllers.ReviewController;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.ReviewBroadcaster;
 import com.pokemonreview.api.models.Pokemon;
 import com.pokemonreview.api.models.Review;
 import com.pokemonreview.api.service.ReviewService;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -22,6 +27,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.Arrays;
+import java.util.Set;
 
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
@@ -30,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 
 
 @WebMvcTest(controllers = ReviewController.class)
+@Import(JacksonConfig.class)
 @AutoConfigureMockMvc(addFilters = false)
 public class ReviewControllerTests {
 
@@ -39,6 +46,9 @@ public class ReviewControllerTests {
     @MockBean
     private ReviewService reviewService;
 
+    @MockBean
+    private ReviewBroadcaster reviewBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -153,4 +163,41 @@ public class ReviewControllerTests {
 
     }
 
+    @Test
+    public void getReviewsByPokemonId_cborAccept_returnCborReviews() throws Exception {
+        when(reviewService.getReviewsByPokemonId(1)).thenReturn(Arrays.asList(reviewDto));
+
+        byte[] cbor = mockMvc.perform(get("/api/pokemon/1/reviews")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Assertions.assertThat(new CBORMapper().readValue(cbor, ReviewDto[].class)).containsExactly(reviewDto);
+    }
+
+    @Test
+    public void getReviewsByPokemonId_fieldsParam_returnOnlyRequestedFields() throws Exception {
+        when(reviewService.getReviewsByPokemonId(1, Set.of("title", "stars")))
+                .thenReturn(Arrays.asList(ReviewDto.builder().title("title").stars(5).build()));
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon/1/reviews")
+                .param("fields", "title,stars"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title", CoreMatchers.is("title")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].content").doesNotExist());
+    }
+
+    @Test
+    public void getReviewById_nullField_keepsIt() throws Exception {
+        when(reviewService.getReviewById(1, 1)).thenReturn(ReviewDto.builder().id(1).title("title").stars(5).build());
+
+        ResultActions response = mockMvc.perform(get("/api/pokemon/1/reviews/1"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content").value(CoreMatchers.nullValue()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.createdAt").value(CoreMatchers.nullValue()));
+    }
 }
@@ -0,0 +1,86 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pokemonreview.api.dto.ChangeEventDto;
+import com.pokemonreview.api.dto.ChangeEventResponse;
+import com.pokemonreview.api.models.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeEventLogTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void append_events_assignConsecutiveOffsets() throws IOException {
+        ChangeEventLog log = new ChangeEventLog(objectMapper, directory.resolve("events.jsonl"));
+
+        log.append(events(3));
+        log.append(events(2));
+
+        ChangeEventResponse response = log.read(0, 10);
+        assertThat(response.getEvents()).extracting(ChangeEventDto::getOffset).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(response.getNextOffset()).isEqualTo(5);
+        log.close();
+    }
+
+    @Test
+    public void read_offsetPastIndexInterval_returnEventsFromOffset() throws IOException {
+        ChangeEventLog log = new ChangeEventLog(objectMapper, directory.resolve("events.jsonl"));
+        log.append(events(ChangeEventLog.INDEX_INTERVAL * 3 + 10));
+
+        ChangeEventResponse response = log.read(ChangeEventLog.INDEX_INTERVAL * 2 + 5, 4);
+
+        assertThat(response.getEvents()).extracting(ChangeEventDto::getOffset)
+                .containsExactly(517L, 518L, 519L, 520L);
+        assertThat(response.getEvents().get(0).getEventId()).isEqualTo("primary:518");
+        assertThat(response.getNextOffset()).isEqualTo(521);
+        assertThat(log.read(response.getNextOffset() + 1000, 10).getEvents()).isEmpty();
+        log.close();
+    }
+
+    @Test
+    public void reopen_partialTrailingLine_dropsItAndContinuesOffsets() throws IOException {
+        Path file = directory.resolve("events.jsonl");
+        ChangeEventLog log = new ChangeEventLog(objectMapper, file);
+        log.append(events(300));
+        log.close();
+        Files.write(file, "{\"offset\":300,\"eventId\":\"prim".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ChangeEventLog reopened = new ChangeEventLog(objectMapper, file);
+        reopened.append(events(1));
+
+        assertThat(reopened.getNextOffset()).isEqualTo(301);
+        assertThat(reopened.read(299, 10).getEvents()).extracting(ChangeEventDto::getOffset).containsExactly(299L, 300L);
+        reopened.close();
+    }
+
+    private List<ChangeEventDto> events(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(id -> ChangeEventDto.builder()
+                        .eventId("primary:" + id)
+                        .aggregateType(EntityChangedEvent.POKEMON)
+                        .aggregateId(id)
+                        .pokemonId(id)
+                        .eventType(ChangeType.CREATED)
+                        .occurredAt(Instant.now())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
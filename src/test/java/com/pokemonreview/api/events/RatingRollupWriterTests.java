@@ -0,0 +1,76 @@
+package com.pokemonreview.api.events;
+
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class RatingRollupWriterTests {
+
+    private static final Instant CREATED = Instant.parse("2026-10-19T10:42:00Z");
+
+    private final RatingRollupRepository ratingRollupRepository = Mockito.mock(RatingRollupRepository.class);
+    private final RatingRollupWriter writer = new RatingRollupWriter(ratingRollupRepository);
+
+    @BeforeEach
+    public void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    public void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void onRatingChanged_sameBucket_oneIncrementPerGranularityBeforeCommit() {
+        writer.onRatingChanged(ReviewRatingChangedEvent.created(7, 4, CREATED));
+        writer.onRatingChanged(ReviewRatingChangedEvent.created(7, 2, CREATED.plusSeconds(60)));
+        writer.onRatingChanged(ReviewRatingChangedEvent.created(3, 5, CREATED));
+
+        verify(ratingRollupRepository, never()).increment(anyInt(), any(), any(), anyLong(), anyLong());
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        InOrder inOrder = inOrder(ratingRollupRepository);
+        inOrder.verify(ratingRollupRepository).increment(3, RollupGranularity.HOUR, Instant.parse("2026-10-19T10:00:00Z"), 1, 5);
+        inOrder.verify(ratingRollupRepository).increment(3, RollupGranularity.DAY, Instant.parse("2026-10-19T00:00:00Z"), 1, 5);
+        inOrder.verify(ratingRollupRepository).increment(7, RollupGranularity.HOUR, Instant.parse("2026-10-19T10:00:00Z"), 2, 6);
+        inOrder.verify(ratingRollupRepository).increment(7, RollupGranularity.DAY, Instant.parse("2026-10-19T00:00:00Z"), 2, 6);
+    }
+
+    @Test
+    public void onRatingChanged_changesCancelOut_writesNothing() {
+        writer.onRatingChanged(ReviewRatingChangedEvent.created(7, 4, CREATED));
+        writer.onRatingChanged(ReviewRatingChangedEvent.deleted(7, 4, CREATED));
+        writer.onRatingChanged(ReviewRatingChangedEvent.updated(7, 3, 5, null));
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        verify(ratingRollupRepository, never()).increment(anyInt(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void onRatingChanged_outsideTransaction_throwsIllegalStateException() {
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThatThrownBy(() -> writer.onRatingChanged(ReviewRatingChangedEvent.created(7, 4, CREATED)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
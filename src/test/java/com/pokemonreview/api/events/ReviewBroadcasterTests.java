@@ -0,0 +1,154 @@
+package com.pokemonreview.api.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.controllers.ReviewController;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.mockito.Mockito;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ReviewBroadcasterTests {
+
+    private final PokemonRepository pokemonRepository = Mockito.mock(PokemonRepository.class);
+
+    @Test
+    public void subscribe_reviewCreated_streamsEvent() throws Exception {
+        ReviewBroadcaster broadcaster = broadcaster(inline(), 8, 8);
+        MockMvc mockMvc = mockMvc(broadcaster);
+
+        MvcResult result = subscribe(mockMvc, null);
+        broadcaster.onEntityChanged(created(1, 10));
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("id:1\nevent:created\ndata:{\"id\":10,\"title\":\"review 10\",\"content\":null,\"stars\":null,"
+                + "\"pokemonId\":1,\"version\":null,\"createdAt\":null,\"updatedAt\":null}");
+    }
+
+    @Test
+    public void subscribe_lastEventId_replaysMissedEvents() throws Exception {
+        ReviewBroadcaster broadcaster = broadcaster(inline(), 8, 8);
+        MockMvc mockMvc = mockMvc(broadcaster);
+        subscribe(mockMvc, null);
+        broadcaster.onEntityChanged(created(1, 10));
+        broadcaster.onEntityChanged(created(1, 11));
+        broadcaster.onEntityChanged(created(1, 12));
+
+        String body = subscribe(mockMvc, 1L).getResponse().getContentAsString();
+
+        assertThat(body).doesNotContain("\"id\":10").contains("id:2\n", "\"id\":11", "id:3\n", "\"id\":12");
+    }
+
+    @Test
+    public void subscribe_lastEventIdOutsideReplay_sendsReset() throws Exception {
+        ReviewBroadcaster broadcaster = broadcaster(inline(), 8, 2);
+        MockMvc mockMvc = mockMvc(broadcaster);
+        subscribe(mockMvc, null);
+        for (int reviewId = 10; reviewId < 14; reviewId++) {
+            broadcaster.onEntityChanged(created(1, reviewId));
+        }
+
+        String body = subscribe(mockMvc, 1L).getResponse().getContentAsString();
+
+        assertThat(body).startsWith("event:reset\n").doesNotContain("\"id\":1");
+    }
+
+    @Test
+    public void subscribe_moreMissedEventsThanBufferSize_sendsReset() throws Exception {
+        List<Runnable> pending = new ArrayList<>();
+        ReviewBroadcaster broadcaster = broadcaster(pending::add, 2, 8);
+        MockMvc mockMvc = mockMvc(broadcaster);
+        subscribe(mockMvc, null);
+        for (int reviewId = 10; reviewId < 14; reviewId++) {
+            broadcaster.onEntityChanged(created(1, reviewId));
+        }
+        pending.clear();
+
+        MvcResult result = subscribe(mockMvc, 1L);
+        pending.forEach(Runnable::run);
+
+        assertThat(result.getResponse().getContentAsString()).startsWith("event:reset\n").doesNotContain("\"id\":1");
+        assertThat(broadcaster.subscriberCount(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void onEntityChanged_fullBuffer_dropsSlowSubscriber() throws Exception {
+        List<Runnable> pending = new ArrayList<>();
+        ReviewBroadcaster broadcaster = broadcaster(pending::add, 2, 8);
+        MockMvc mockMvc = mockMvc(broadcaster);
+        MvcResult result = subscribe(mockMvc, null);
+
+        broadcaster.onEntityChanged(created(1, 10));
+        broadcaster.onEntityChanged(created(1, 11));
+        assertThat(broadcaster.subscriberCount(1)).isEqualTo(1);
+
+        broadcaster.onEntityChanged(created(1, 12));
+
+        assertThat(broadcaster.subscriberCount(1)).isZero();
+        assertThat(result.getAsyncResult(1000)).isNull();
+    }
+
+    @Test
+    public void onEntityChanged_otherPokemon_isNotDelivered() throws Exception {
+        ReviewBroadcaster broadcaster = broadcaster(inline(), 8, 8);
+        MockMvc mockMvc = mockMvc(broadcaster);
+        MvcResult result = subscribe(mockMvc, null);
+
+        broadcaster.onEntityChanged(created(2, 20));
+        broadcaster.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.DELETED, 1, null));
+
+        assertThat(result.getResponse().getContentAsString()).isEmpty();
+    }
+
+    private ReviewBroadcaster broadcaster(Executor executor, int bufferSize, int replaySize) {
+        ExecutorService senders = Mockito.mock(ExecutorService.class);
+        Mockito.doAnswer(invocation -> {
+            executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(senders).execute(Mockito.any());
+        return new ReviewBroadcaster(pokemonRepository, new ObjectMapper(), senders, bufferSize, replaySize);
+    }
+
+    private Executor inline() {
+        return Runnable::run;
+    }
+
+    private MockMvc mockMvc(ReviewBroadcaster broadcaster) {
+        when(pokemonRepository.existsById(1)).thenReturn(true);
+        return MockMvcBuilders.standaloneSetup(new ReviewController(Mockito.mock(ReviewService.class), broadcaster,
+                Mockito.mock(ObjectProvider.class), new ObjectMapper())).build();
+    }
+
+    private MvcResult subscribe(MockMvc mockMvc, Long lastEventId) throws Exception {
+        MockHttpServletRequestBuilder builder = get("/api/pokemon/1/reviews/stream");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private EntityChangedEvent created(int pokemonId, int reviewId) {
+        ReviewDto review = ReviewDto.builder().id(reviewId).title("review " + reviewId).pokemonId(pokemonId).build();
+        return EntityChangedEvent.review(ChangeType.CREATED, pokemonId, reviewId, review);
+    }
+}
@@ -0,0 +1,112 @@
+package com.pokemonreview.api.leaderboard;
+
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.LeaderboardEntryDto;
+import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.events.ReviewRatingChangedEvent;
+import com.pokemonreview.api.models.ChangeType;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+public class ReviewLeaderboardTests {
+
+    @Test
+    public void getTopRated_belowMinReviews_isNotRanked() {
+        ReviewLeaderboard leaderboard = new ReviewLeaderboard(2);
+        rate(leaderboard, 1, 5);
+        rate(leaderboard, 2, 4, 4);
+        rate(leaderboard, 3, 5, 3, 3);
+
+        assertThat(leaderboard.getTopRated(10)).extracting(LeaderboardEntryDto::getPokemonId).containsExactly(2, 3);
+        assertThat(leaderboard.getMostReviewed(10)).extracting(LeaderboardEntryDto::getPokemonId).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    public void onRatingChanged_updateAndDelete_moveEntries() {
+        ReviewLeaderboard leaderboard = new ReviewLeaderboard(1);
+        rate(leaderboard, 1, 4, 4);
+        rate(leaderboard, 2, 3, 3);
+
+        leaderboard.onRatingChanged(ReviewRatingChangedEvent.updated(2, 3, 5, null));
+        leaderboard.onRatingChanged(ReviewRatingChangedEvent.deleted(1, 4, null));
+
+        List<LeaderboardEntryDto> topRated = leaderboard.getTopRated(10);
+        assertThat(topRated).extracting(LeaderboardEntryDto::getPokemonId).containsExactly(2, 1);
+        assertThat(topRated.get(0).getAverageStars()).isEqualTo(4.0);
+        assertThat(topRated.get(0).getRank()).isEqualTo(1);
+        assertThat(leaderboard.getMostReviewed(1)).extracting(LeaderboardEntryDto::getPokemonId).containsExactly(2);
+    }
+
+    @Test
+    public void onEntityChanged_pokemonEvents_trackNamesAndRemoveDeleted() {
+        ReviewLeaderboard leaderboard = new ReviewLeaderboard(1);
+        leaderboard.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.CREATED, 1, PokemonDto.builder().id(1).name("pikachu").build()));
+        leaderboard.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.CREATED, 2, PokemonDto.builder().id(2).name("squirtle").build()));
+        rate(leaderboard, 1, 5);
+        rate(leaderboard, 2, 4);
+
+        leaderboard.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.UPDATED, 1, PokemonDto.builder().id(1).name("raichu").build()));
+        leaderboard.onEntityChanged(EntityChangedEvent.pokemon(ChangeType.DELETED, 2, null));
+
+        assertThat(leaderboard.getMostReviewed(10)).extracting(LeaderboardEntryDto::getName).containsExactly("raichu");
+    }
+
+    @Test
+    public void refresh_reviewsWrittenElsewhere_areRanked() {
+        PokemonRepository pokemonRepository = Mockito.mock(PokemonRepository.class);
+        ReviewRepository reviewRepository = Mockito.mock(ReviewRepository.class);
+        given(pokemonRepository.findAllNames()).willReturn(List.of(new Object[]{1, "pikachu"}, new Object[]{2, "squirtle"}));
+        given(reviewRepository.countAndSumStarsByPokemonId()).willReturn(List.<Object[]>of(new Object[]{1, 2L, 8L}));
+        ReviewLeaderboard leaderboard = leaderboard(pokemonRepository, reviewRepository);
+        leaderboard.start();
+
+        // written by another instance
+        given(reviewRepository.countAndSumStarsByPokemonId())
+                .willReturn(List.of(new Object[]{1, 2L, 8L}, new Object[]{2, 3L, 15L}));
+        leaderboard.refresh();
+
+        assertThat(leaderboard.getMostReviewed(10)).extracting(LeaderboardEntryDto::getPokemonId).containsExactly(2, 1);
+    }
+
+    @Test
+    public void refresh_reviewCommittedDuringRead_isCountedOnce() {
+        PokemonRepository pokemonRepository = Mockito.mock(PokemonRepository.class);
+        ReviewRepository reviewRepository = Mockito.mock(ReviewRepository.class);
+        given(pokemonRepository.findAllNames()).willReturn(List.<Object[]>of(new Object[]{1, "pikachu"}));
+        given(reviewRepository.countAndSumStarsByPokemonId()).willReturn(List.<Object[]>of(new Object[]{1, 2L, 8L}));
+        ReviewLeaderboard leaderboard = leaderboard(pokemonRepository, reviewRepository);
+        leaderboard.start();
+
+        // the read already sees the review whose commit event arrives meanwhile
+        given(reviewRepository.countAndSumStarsByPokemonId()).willAnswer(invocation -> {
+            leaderboard.onRatingChanged(ReviewRatingChangedEvent.created(1, 5, null));
+            return List.<Object[]>of(new Object[]{1, 3L, 13L});
+        });
+        leaderboard.refresh();
+
+        assertThat(leaderboard.getMostReviewed(10)).extracting(LeaderboardEntryDto::getReviewCount).containsExactly(3L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReviewLeaderboard leaderboard(PokemonRepository pokemonRepository, ReviewRepository reviewRepository) {
+        ShardTemplate shardTemplate = new ShardTemplate(Mockito.mock(PlatformTransactionManager.class), (ConsistentHashRing) null);
+        return new ReviewLeaderboard(pokemonRepository, reviewRepository, shardTemplate, Mockito.mock(ObjectProvider.class));
+    }
+
+    private void rate(ReviewLeaderboard leaderboard, int pokemonId, int... stars) {
+        for (int star : stars) {
+            leaderboard.onRatingChanged(ReviewRatingChangedEvent.created(pokemonId, star, null));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pokemonreview.api.reference;
+
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.repository.PokemonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(PokemonTypeDictionary.class)
+public class PokemonTypeDictionaryTests {
+
+    @Autowired
+    private PokemonTypeDictionary pokemonTypes;
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void intern_equalNames_returnsSharedInstance() {
+        String first = pokemonTypes.intern(new String("fire"));
+        String second = pokemonTypes.intern(new String("fire"));
+
+        assertThat(second).isEqualTo("fire").isSameAs(first);
+        assertThat(pokemonTypes.codeOf("fire")).isEqualTo(pokemonTypes.codeOf("fire"));
+        assertThat(pokemonTypes.intern(null)).isNull();
+    }
+
+    @Test
+    public void findAll_pokemonOfOneType_storeCodeAndShareName() {
+        pokemonRepository.save(Pokemon.builder().name("charmander").type(new String("fire")).build());
+        pokemonRepository.save(Pokemon.builder().name("vulpix").type(new String("fire")).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Number code = (Number) entityManager.createNativeQuery("select type_id from pokemon where name = 'vulpix'").getSingleResult();
+        List<Pokemon> pokemon = pokemonRepository.findAll();
+
+        assertThat(code.shortValue()).isEqualTo(pokemonTypes.codeOf("fire"));
+        assertThat(pokemon).hasSize(2);
+        assertThat(pokemon.get(0).getType()).isEqualTo("fire").isSameAs(pokemon.get(1).getType());
+    }
+
+    @Test
+    public void nameOf_typeAddedByAnotherInstance_reloadsTypes() {
+        short code = new PokemonTypeDictionary(dataSource).codeOf("ghost");
+
+        assertThat(pokemonTypes.nameOf(code)).isEqualTo("ghost");
+    }
+
+    @Test
+    public void nameOf_unknownCode_throwsIllegalStateException() {
+        assertThatThrownBy(() -> pokemonTypes.nameOf(Short.MAX_VALUE)).isInstanceOf(IllegalStateException.class);
+    }
+}
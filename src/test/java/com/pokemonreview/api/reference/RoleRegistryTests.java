@@ -0,0 +1,48 @@
+package com.pokemonreview.api.reference;
+
+import com.pokemonreview.api.models.Role;
+import com.pokemonreview.api.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class RoleRegistryTests {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Test
+    public void get_loadedRole_returnsItWithoutQuerying() {
+        Role user = new Role();
+        user.setId(1);
+        user.setName("USER");
+        given(roleRepository.findAll()).willReturn(List.of(user));
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+
+        assertThat(roleRegistry.get("USER")).isSameAs(user);
+        assertThat(roleRegistry.get("USER")).isSameAs(user);
+        verify(roleRepository, times(1)).findAll();
+        verifyNoMoreInteractions(roleRepository);
+    }
+
+    @Test
+    public void get_unknownRole_throwsIllegalStateException() {
+        given(roleRepository.findAll()).willReturn(List.of());
+        RoleRegistry roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+
+        assertThatThrownBy(() -> roleRegistry.get("ADMIN")).isInstanceOf(IllegalStateException.class);
+    }
+}
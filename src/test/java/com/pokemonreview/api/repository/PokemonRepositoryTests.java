@@ -9,9 +9,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.Tuple;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
@@ -129,4 +133,47 @@ public class PokemonRepositoryTests {
         assertThat(afterDelete).isNotPresent();
     }
 
+    @Test
+    public void patch_matchingVersion_updatesGivenFieldsAndBumpsVersion() {
+        Pokemon pokemon = pokemonRepository.saveAndFlush(Pokemon.builder()
+                .name("pikachu")
+                .type("electric")
+                .build());
+
+        int updated = pokemonRepository.patch(pokemon.getId(), "raichu", null, pokemon.getVersion());
+        assertThat(updated).isEqualTo(1);
+
+        Pokemon patched = pokemonRepository.findAll().get(0);
+        assertThat(patched.getName()).isEqualTo("raichu");
+        assertThat(patched.getType()).isEqualTo("electric");
+        assertThat(patched.getVersion()).isEqualTo(pokemon.getVersion() + 1);
+    }
+
+    @Test
+    public void patch_staleVersion_updatesNothing() {
+        Pokemon pokemon = pokemonRepository.saveAndFlush(Pokemon.builder()
+                .name("pikachu")
+                .type("electric")
+                .build());
+
+        int updated = pokemonRepository.patch(pokemon.getId(), "raichu", null, pokemon.getVersion() + 1);
+
+        assertThat(updated).isEqualTo(0);
+    }
+
+    @Test
+    public void findAllFields_validInput_returnOnlyRequestedFields() {
+        pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        pokemonRepository.save(Pokemon.builder().name("squirtle").type("water").build());
+
+        Page<Tuple> page = pokemonRepository.findAllFields(Set.of("id", "name"), PageRequest.of(0, 1));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().get(0).getElements())
+                .extracting(element -> element.getAlias())
+                .containsExactlyInAnyOrder("id", "name");
+        assertThat(page.getContent().get(0).get("name")).isIn("pikachu", "squirtle");
+    }
+
 }
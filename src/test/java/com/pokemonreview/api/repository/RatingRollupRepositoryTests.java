@@ -0,0 +1,105 @@
+package com.pokemonreview.api.repository;
+
+import com.pokemonreview.api.models.RatingRollup;
+import com.pokemonreview.api.models.RatingRollupId;
+import com.pokemonreview.api.models.RollupGranularity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class RatingRollupRepositoryTests {
+
+    private static final Instant TEN = Instant.parse("2026-10-19T10:00:00Z");
+    private static final Instant ELEVEN = Instant.parse("2026-10-19T11:00:00Z");
+
+    @Autowired
+    private RatingRollupRepository ratingRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void increment_existingBucket_addsToIt() {
+        ratingRollupRepository.increment(1, RollupGranularity.HOUR, TEN, 2, 9);
+        ratingRollupRepository.increment(1, RollupGranularity.HOUR, TEN, -1, -4);
+
+        RatingRollup rollup = ratingRollupRepository.findById(new RatingRollupId(1, RollupGranularity.HOUR, TEN)).orElseThrow();
+
+        assertThat(rollup.getReviewCount()).isEqualTo(1);
+        assertThat(rollup.getStarsTotal()).isEqualTo(5);
+    }
+
+    @Test
+    public void findHistory_range_returnsBucketsOfPokemonInOrder() {
+        ratingRollupRepository.increment(1, RollupGranularity.HOUR, ELEVEN, 1, 3);
+        ratingRollupRepository.increment(1, RollupGranularity.HOUR, TEN, 1, 4);
+        ratingRollupRepository.increment(1, RollupGranularity.DAY, TEN.minusSeconds(36_000), 2, 7);
+        ratingRollupRepository.increment(2, RollupGranularity.HOUR, TEN, 1, 5);
+
+        List<RatingRollup> history = ratingRollupRepository.findHistory(1, RollupGranularity.HOUR, TEN, ELEVEN.plusSeconds(3600));
+        List<RatingRollup> since = ratingRollupRepository.findAllSince(RollupGranularity.HOUR, ELEVEN);
+
+        assertThat(history).extracting(rollup -> rollup.getId().getBucketStart()).containsExactly(TEN, ELEVEN);
+        assertThat(since).hasSize(1);
+        assertThat(since.get(0).getStarsTotal()).isEqualTo(3);
+    }
+
+    @Test
+    public void deleteByPokemonId_removesAllGranularities() {
+        ratingRollupRepository.increment(1, RollupGranularity.HOUR, TEN, 1, 4);
+        ratingRollupRepository.increment(1, RollupGranularity.DAY, TEN.minusSeconds(36_000), 1, 4);
+        ratingRollupRepository.increment(2, RollupGranularity.HOUR, TEN, 1, 5);
+
+        int deleted = ratingRollupRepository.deleteByPokemonId(1);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(ratingRollupRepository.findAll()).extracting(rollup -> rollup.getId().getPokemonId()).containsExactly(2);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void increment_concurrentNewBucket_addsBoth() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstInserted = new CountDownLatch(1);
+        try {
+            // the second upsert waits for the first transaction's uncommitted row and only then finds it taken
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+                ratingRollupRepository.increment(3, RollupGranularity.HOUR, TEN, 1, 4);
+                firstInserted.countDown();
+                sleep(300);
+            }));
+            firstInserted.await();
+            transaction.executeWithoutResult(status -> ratingRollupRepository.increment(3, RollupGranularity.HOUR, TEN, 1, 2));
+            first.get();
+
+            RatingRollup rollup = ratingRollupRepository.findById(new RatingRollupId(3, RollupGranularity.HOUR, TEN)).orElseThrow();
+            assertThat(rollup.getReviewCount()).isEqualTo(2);
+            assertThat(rollup.getStarsTotal()).isEqualTo(6);
+        } finally {
+            ratingRollupRepository.deleteByPokemonId(3);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
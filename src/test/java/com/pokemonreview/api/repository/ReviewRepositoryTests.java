@@ -11,9 +11,11 @@ import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import javax.persistence.Tuple;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
@@ -22,6 +24,9 @@ public class ReviewRepositoryTests {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
     @Test
     public void saveAll_validInput_returnSavedReview() {
         Review review1 = Review.builder()
@@ -140,4 +145,96 @@ public class ReviewRepositoryTests {
         assertThat(byId).isNotPresent();
     }
 
+    @Test
+    public void deleteChunkByPokemonId_validInput_deletesAtMostLimitReviewsOfThatPokemon() {
+        Pokemon pokemon = pokemonRepository.save(Pokemon.builder()
+                .name("pikachu")
+                .type("electric")
+                .build());
+        Pokemon otherPokemon = pokemonRepository.save(Pokemon.builder()
+                .name("raichu")
+                .type("electric")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            reviewRepository.save(Review.builder().title("title" + i).content("content").stars(5).pokemon(pokemon).build());
+        }
+        reviewRepository.save(Review.builder().title("other").content("content").stars(5).pokemon(otherPokemon).build());
+        reviewRepository.flush();
+
+        assertThat(reviewRepository.deleteChunkByPokemonId(pokemon.getId(), 3)).isEqualTo(3);
+        assertThat(reviewRepository.deleteChunkByPokemonId(pokemon.getId(), 3)).isEqualTo(2);
+        assertThat(reviewRepository.deleteChunkByPokemonId(pokemon.getId(), 3)).isEqualTo(0);
+
+        assertThat(reviewRepository.findByPokemonId(otherPokemon.getId()).size()).isEqualTo(1);
+    }
+
+    @Test
+    public void findFieldsByPokemonId_validInput_returnOnlyRequestedFieldsOfThatPokemon() {
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        Pokemon squirtle = pokemonRepository.save(Pokemon.builder().name("squirtle").type("water").build());
+        reviewRepository.save(Review.builder().title("title1").content("content1").stars(5).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("title2").content("content2").stars(3).pokemon(squirtle).build());
+
+        List<Tuple> reviews = reviewRepository.findFieldsByPokemonId(pikachu.getId(), Set.of("title", "stars", "pokemonId"));
+
+        assertThat(reviews).hasSize(1);
+        assertThat(reviews.get(0).getElements()).hasSize(3);
+        assertThat(reviews.get(0).get("title")).isEqualTo("title1");
+        assertThat(reviews.get(0).get("stars")).isEqualTo(5);
+        assertThat(reviews.get(0).get("pokemonId")).isEqualTo(pikachu.getId());
+    }
+
+    @Test
+    public void findByPokemonIdIn_validInput_returnReviewsOfRequestedPokemon() {
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        Pokemon squirtle = pokemonRepository.save(Pokemon.builder().name("squirtle").type("water").build());
+        Pokemon bulbasaur = pokemonRepository.save(Pokemon.builder().name("bulbasaur").type("grass").build());
+        reviewRepository.save(Review.builder().title("title1").content("content1").stars(5).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("title2").content("content2").stars(3).pokemon(squirtle).build());
+        reviewRepository.save(Review.builder().title("title3").content("content3").stars(4).pokemon(bulbasaur).build());
+
+        List<Review> reviews = reviewRepository.findByPokemonIdIn(Arrays.asList(pikachu.getId(), bulbasaur.getId()));
+
+        assertThat(reviews).extracting(Review::getTitle).containsExactlyInAnyOrder("title1", "title3");
+        assertThat(pokemonRepository.findIdsByIdIn(Arrays.asList(pikachu.getId(), -1))).containsExactly(pikachu.getId());
+    }
+
+    @Test
+    public void findFirstReviewsByPokemonIdIn_validInput_returnAtMostLimitReviewsPerPokemon() {
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        Pokemon squirtle = pokemonRepository.save(Pokemon.builder().name("squirtle").type("water").build());
+        for (int i = 1; i <= 3; i++) {
+            reviewRepository.save(Review.builder().title("pikachu" + i).content("content").stars(i).pokemon(pikachu).build());
+        }
+        reviewRepository.save(Review.builder().title("squirtle1").content("content").stars(4).pokemon(squirtle).build());
+
+        List<Review> reviews = reviewRepository.findFirstReviewsByPokemonIdIn(Arrays.asList(pikachu.getId(), squirtle.getId()), 2);
+
+        assertThat(reviews).extracting(Review::getTitle).containsExactly("pikachu1", "pikachu2", "squirtle1");
+    }
+
+    @Test
+    public void countAndSumStarsByPokemonId_validInput_returnTotalsPerPokemon() {
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        Pokemon squirtle = pokemonRepository.save(Pokemon.builder().name("squirtle").type("water").build());
+        reviewRepository.save(Review.builder().title("title1").content("content1").stars(5).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("title2").content("content2").stars(2).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("title3").content("content3").stars(4).pokemon(squirtle).build());
+
+        List<Object[]> totals = reviewRepository.countAndSumStarsByPokemonId();
+
+        assertThat(totals).extracting(row -> row[0], row -> ((Number) row[1]).longValue(), row -> ((Number) row[2]).longValue())
+                .containsExactlyInAnyOrder(tuple(pikachu.getId(), 2L, 7L), tuple(squirtle.getId(), 1L, 4L));
+    }
+
+    @Test
+    public void findStarsForUpdate_otherPokemon_returnNull() {
+        Pokemon pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type("electric").build());
+        Review review = reviewRepository.save(Review.builder().title("title1").content("content1").stars(3).pokemon(pikachu).build());
+        reviewRepository.flush();
+
+        assertThat(reviewRepository.findStarsForUpdate(pikachu.getId(), review.getId())).isEqualTo(3);
+        assertThat(reviewRepository.findStarsForUpdate(pikachu.getId() + 1, review.getId())).isNull();
+    }
+
 }
@@ -1,28 +1,53 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.PokemonBatchResponse;
 import com.pokemonreview.api.dto.PokemonDto;
 import com.pokemonreview.api.dto.PokemonResponse;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.exceptions.BatchTooLargeException;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.exceptions.VersionMismatchException;
+import com.pokemonreview.api.models.ChangeType;
 import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.reference.PokemonTypeDictionary;
 import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
 import com.pokemonreview.api.service.impl.PokemonServiceImpl;
 
 import static org.assertj.core.api.Assertions.*;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.AdditionalAnswers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.mockito.Mockito.doNothing;
@@ -34,9 +59,29 @@ public class PokemonServiceTests {
     @Mock
     private PokemonRepository pokemonRepository;
 
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private RatingRollupRepository ratingRollupRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PokemonTypeDictionary pokemonTypes;
+
+    @Spy
+    private ShardTemplate shardTemplate = new ShardTemplate(Mockito.mock(PlatformTransactionManager.class), (ConsistentHashRing) null);
+
     @InjectMocks
     private PokemonServiceImpl pokemonService;
 
+    @BeforeEach
+    public void setUp() {
+        lenient().when(pokemonTypes.intern(any())).then(AdditionalAnswers.returnsFirstArg());
+    }
+
     @Test
     public void createPokemon_validInput_returnPokemonDto() {
         Pokemon pokemon = Pokemon.builder()
@@ -97,7 +142,7 @@ public class PokemonServiceTests {
                 .build();
 
         when(pokemonRepository.findById(anyInt())).thenReturn(Optional.ofNullable(pokemon));
-        when(pokemonRepository.save(any(Pokemon.class))).thenReturn(pokemon);
+        when(pokemonRepository.saveAndFlush(any(Pokemon.class))).thenReturn(pokemon);
 
         PokemonDto updatedPokemon = pokemonService.updatePokemon(pokemonDto, 1);
 
@@ -116,13 +161,31 @@ public class PokemonServiceTests {
                 .type("electric")
                 .build();
 
-        when(pokemonRepository.findById(anyInt())).thenReturn(Optional.ofNullable(pokemon));
-        doNothing().when(pokemonRepository).delete(pokemon);
+        when(pokemonRepository.existsById(pokemon.getId())).thenReturn(true);
+        when(reviewRepository.deleteChunkByPokemonId(eq(pokemon.getId()), anyInt())).thenReturn(1000, 1000, 10);
+
+        pokemonService.deletePokemonId(1);
+
+        verify(pokemonRepository, never()).findById(anyInt());
+        verify(reviewRepository, times(3)).deleteChunkByPokemonId(eq(pokemon.getId()), anyInt());
+        verify(ratingRollupRepository).deleteByPokemonId(pokemon.getId());
+        verify(pokemonRepository, times(1)).bulkDeleteById(pokemon.getId());
+        verify(eventPublisher).publishEvent(argThat((EntityChangedEvent event) -> event.getEventType() == ChangeType.DELETED
+                && event.getAggregateId() == pokemon.getId() && event.getPayload() == null));
+    }
+
+    @Test
+    public void deletePokemonId_reviewAddedAfterLastChunk_deletesReviewsAgain() {
+        when(pokemonRepository.existsById(1)).thenReturn(true);
+        when(reviewRepository.deleteChunkByPokemonId(eq(1), anyInt())).thenReturn(10, 1);
+        when(pokemonRepository.bulkDeleteById(1)).thenThrow(new DataIntegrityViolationException("fk_review_pokemon")).thenReturn(1);
 
         pokemonService.deletePokemonId(1);
 
-        verify(pokemonRepository, times(1)).findById(pokemon.getId());
-        verify(pokemonRepository, times(1)).delete(pokemon);
+        verify(reviewRepository, times(2)).deleteChunkByPokemonId(eq(1), anyInt());
+        verify(ratingRollupRepository, times(2)).deleteByPokemonId(1);
+        verify(pokemonRepository, times(2)).bulkDeleteById(1);
+        verify(eventPublisher).publishEvent(any(EntityChangedEvent.class));
     }
 
     @Test
@@ -132,11 +195,121 @@ public class PokemonServiceTests {
                 .name("pikachu")
                 .type("electric")
                 .build();
-        when(pokemonRepository.findById(pokemon.getId())).thenReturn(Optional.empty());
+        when(pokemonRepository.existsById(pokemon.getId())).thenReturn(false);
 
         assertThrows(PokemonNotFoundException.class, () -> pokemonService.deletePokemonId(pokemon.getId()));
-        verify(pokemonRepository, times(1)).findById(pokemon.getId());
-        verify(pokemonRepository, never()).delete(any());
+        verify(pokemonRepository, times(1)).existsById(pokemon.getId());
+        verify(reviewRepository, never()).deleteChunkByPokemonId(anyInt(), anyInt());
+        verify(pokemonRepository, never()).bulkDeleteById(anyInt());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void updatePokemon_staleVersion_throwsVersionMismatchException() {
+        Pokemon pokemon = Pokemon.builder()
+                .id(1)
+                .name("pikachu")
+                .type("electric")
+                .version(2)
+                .build();
+        PokemonDto pokemonDto = PokemonDto.builder()
+                .name("pikachu2")
+                .type("electric2")
+                .version(1)
+                .build();
+
+        when(pokemonRepository.findById(1)).thenReturn(Optional.of(pokemon));
+
+        assertThrows(VersionMismatchException.class, () -> pokemonService.updatePokemon(pokemonDto, 1));
+        verify(pokemonRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void patchPokemon_validInput_returnPokemonDto() {
+        Pokemon pokemon = Pokemon.builder()
+                .id(1)
+                .name("raichu")
+                .type("electric")
+                .version(1)
+                .build();
+        PokemonDto pokemonDto = PokemonDto.builder()
+                .name("raichu")
+                .build();
+
+        when(pokemonRepository.patch(1, "raichu", null, null)).thenReturn(1);
+        when(pokemonRepository.findById(1)).thenReturn(Optional.of(pokemon));
+
+        PokemonDto patchedPokemon = pokemonService.patchPokemon(pokemonDto, 1);
+
+        assertThat(patchedPokemon.getName()).isEqualTo("raichu");
+        assertThat(patchedPokemon.getType()).isEqualTo("electric");
+        assertThat(patchedPokemon.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void patchPokemon_staleVersion_throwsVersionMismatchException() {
+        PokemonDto pokemonDto = PokemonDto.builder()
+                .name("raichu")
+                .version(0)
+                .build();
+
+        when(pokemonRepository.patch(1, "raichu", null, 0)).thenReturn(0);
+        when(pokemonRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(VersionMismatchException.class, () -> pokemonService.patchPokemon(pokemonDto, 1));
+    }
+
+    @Test
+    public void patchPokemon_unknownPokemon_throwsPokemonNotFoundException() {
+        PokemonDto pokemonDto = PokemonDto.builder()
+                .name("raichu")
+                .build();
+
+        when(pokemonRepository.patch(1, "raichu", null, null)).thenReturn(0);
+        when(pokemonRepository.existsById(1)).thenReturn(false);
+
+        assertThrows(PokemonNotFoundException.class, () -> pokemonService.patchPokemon(pokemonDto, 1));
+    }
+
+    @Test
+    public void getAllPokemon_unknownField_throwsInvalidFieldException() {
+        assertThrows(InvalidFieldException.class, () -> pokemonService.getAllPokemon(0, 10, Set.of("name", "reviews")));
+        verifyNoInteractions(pokemonRepository);
+    }
+
+    @Test
+    public void getPokemonByIds_someMissing_returnFoundInRequestOrderAndMissingIds() {
+        Pokemon pikachu = Pokemon.builder().id(1).name("pikachu").type("electric").build();
+        Pokemon squirtle = Pokemon.builder().id(2).name("squirtle").type("water").build();
+        when(pokemonRepository.findAllById(Mockito.<Iterable<Integer>>any())).thenReturn(Arrays.asList(pikachu, squirtle));
+
+        PokemonBatchResponse response = pokemonService.getPokemonByIds(Arrays.asList(2, 9, 1, 2));
+
+        assertThat(response.getContent()).extracting(PokemonDto::getName).containsExactly("squirtle", "pikachu");
+        assertThat(response.getMissingIds()).containsExactly(9);
+    }
+
+    @Test
+    public void getPokemonByIds_tooManyIds_throwsBatchTooLargeException() {
+        assertThrows(BatchTooLargeException.class, () -> pokemonService.getPokemonByIds(
+                IntStream.rangeClosed(1, 101).boxed().collect(Collectors.toList())));
+        verifyNoInteractions(pokemonRepository);
+    }
+
+    @Test
+    public void getAllPokemonWithReviews_validInput_embedsReviewsFromOneQuery() {
+        Pokemon pikachu = Pokemon.builder().id(1).name("pikachu").type("electric").build();
+        Pokemon squirtle = Pokemon.builder().id(2).name("squirtle").type("water").build();
+        Review review = Review.builder().id(7).title("title").content("content").stars(5).pokemon(pikachu).build();
+        when(pokemonRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(pikachu, squirtle), PageRequest.of(0, 10), 2));
+        when(reviewRepository.findFirstReviewsByPokemonIdIn(Arrays.asList(1, 2), 20)).thenReturn(Arrays.asList(review));
+
+        PokemonResponse response = pokemonService.getAllPokemonWithReviews(0, 10, 50);
+
+        assertThat(response.getContent().get(0).getReviews()).extracting(ReviewDto::getId).containsExactly(7);
+        assertThat(response.getContent().get(1).getReviews()).isEmpty();
+        verify(reviewRepository, times(1)).findFirstReviewsByPokemonIdIn(any(), anyInt());
     }
 
 }
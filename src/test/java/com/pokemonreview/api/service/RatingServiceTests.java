@@ -0,0 +1,108 @@
+package com.pokemonreview.api.service;
+
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.RatingBucketDto;
+import com.pokemonreview.api.dto.TrendingPokemonDto;
+import com.pokemonreview.api.exceptions.InvalidFieldException;
+import com.pokemonreview.api.exceptions.PokemonNotFoundException;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.RatingRollup;
+import com.pokemonreview.api.models.RatingRollupId;
+import com.pokemonreview.api.models.RollupGranularity;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.RatingRollupRepository;
+import com.pokemonreview.api.service.impl.RatingServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RatingServiceTests {
+
+    private final PokemonRepository pokemonRepository = mock(PokemonRepository.class);
+    private final RatingRollupRepository ratingRollupRepository = mock(RatingRollupRepository.class);
+    private final ShardTemplate shardTemplate = new ShardTemplate(Mockito.mock(PlatformTransactionManager.class), (ConsistentHashRing) null);
+    private final RatingService ratingService = new RatingServiceImpl(pokemonRepository, ratingRollupRepository, shardTemplate);
+
+    @Test
+    public void getRatingHistory_defaultRange_returnsNonEmptyBucketsOfLastTwoDays() {
+        when(pokemonRepository.existsById(1)).thenReturn(true);
+        when(ratingRollupRepository.findHistory(eq(1), eq(RollupGranularity.HOUR), any(), any())).thenReturn(List.of(
+                rollup(1, RollupGranularity.HOUR, hoursAgo(3), 4, 14),
+                rollup(1, RollupGranularity.HOUR, hoursAgo(2), 0, 0)));
+
+        List<RatingBucketDto> history = ratingService.getRatingHistory(1, RollupGranularity.HOUR, null, null);
+
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> to = ArgumentCaptor.forClass(Instant.class);
+        verify(ratingRollupRepository).findHistory(eq(1), eq(RollupGranularity.HOUR), from.capture(), to.capture());
+        assertThat(to.getValue()).isEqualTo(hoursAgo(-1));
+        assertThat(Duration.between(from.getValue(), to.getValue())).isEqualTo(Duration.ofHours(48));
+        assertThat(history).hasSize(1);
+        assertThat(history.get(0).getReviewCount()).isEqualTo(4);
+        assertThat(history.get(0).getAverageStars()).isEqualTo(3.5);
+    }
+
+    @Test
+    public void getRatingHistory_tooManyBuckets_throwsInvalidFieldException() {
+        when(pokemonRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(InvalidFieldException.class, () -> ratingService.getRatingHistory(1, RollupGranularity.HOUR,
+                Instant.parse("2020-01-01T00:00:00Z"), Instant.now()));
+        verify(ratingRollupRepository, never()).findHistory(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    public void getRatingHistory_missingPokemon_throwsPokemonNotFoundException() {
+        assertThrows(PokemonNotFoundException.class, () -> ratingService.getRatingHistory(1, RollupGranularity.DAY, null, null));
+    }
+
+    @Test
+    public void getTrending_recentBurst_outranksOlderLargerCount() {
+        when(ratingRollupRepository.findAllSince(RollupGranularity.HOUR, hoursAgo(24))).thenReturn(List.of(
+                rollup(1, RollupGranularity.HOUR, hoursAgo(22), 20, 80),
+                rollup(2, RollupGranularity.HOUR, hoursAgo(0), 6, 30),
+                rollup(3, RollupGranularity.HOUR, hoursAgo(1), 2, 10)));
+        when(pokemonRepository.findAllById(any())).thenReturn(List.of(
+                Pokemon.builder().id(1).name("bulbasaur").build(),
+                Pokemon.builder().id(2).name("ivysaur").build()));
+
+        List<TrendingPokemonDto> trending = ratingService.getTrending(24, 3);
+
+        // pokemon 3 was deleted after its reviews were counted
+        assertThat(trending).extracting(TrendingPokemonDto::getPokemonId).containsExactly(2, 1);
+        assertThat(trending.get(0).getRank()).isEqualTo(1);
+        // a six hour half-life weighs the current hour by at least 0.5^(1/12)
+        assertThat(trending.get(0).getScore()).isBetween(5.6, 6.0);
+        assertThat(trending.get(1).getReviewCount()).isEqualTo(20);
+        assertThat(trending.get(1).getScore()).isLessThan(2.0);
+    }
+
+    // start of the hour that began the given number of hours before the current one
+    private static Instant hoursAgo(int hours) {
+        return RollupGranularity.HOUR.bucketOf(Instant.now()).minus(Duration.ofHours(hours));
+    }
+
+    private static RatingRollup rollup(int pokemonId, RollupGranularity granularity, Instant bucketStart, long count, long stars) {
+        return RatingRollup.builder()
+                .id(new RatingRollupId(pokemonId, granularity, bucketStart))
+                .reviewCount(count)
+                .starsTotal(stars)
+                .build();
+    }
+}
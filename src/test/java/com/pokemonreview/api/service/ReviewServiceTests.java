@@ -1,9 +1,15 @@
 package com.pokemonreview.api.service;
 
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
 import com.pokemonreview.api.dto.PokemonDto;
+import com.pokemonreview.api.dto.ReviewBatchResponse;
 import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.events.EntityChangedEvent;
+import com.pokemonreview.api.events.ReviewRatingChangedEvent;
 import com.pokemonreview.api.exceptions.PokemonNotFoundException;
 import com.pokemonreview.api.exceptions.ReviewNotFoundException;
+import com.pokemonreview.api.models.ChangeType;
 import com.pokemonreview.api.models.Pokemon;
 import com.pokemonreview.api.models.Review;
 import com.pokemonreview.api.repository.PokemonRepository;
@@ -18,17 +24,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +51,12 @@ public class ReviewServiceTests {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardTemplate shardTemplate = new ShardTemplate(Mockito.mock(PlatformTransactionManager.class), (ConsistentHashRing) null);
+
     @InjectMocks
     private ReviewServiceImpl reviewService;
 
@@ -91,6 +108,8 @@ public class ReviewServiceTests {
         assertThat(savedReview.getTitle()).isEqualTo(review.getTitle());
         assertThat(savedReview.getStars()).isEqualTo(review.getStars());
         assertThat(savedReview.getPokemonId()).isEqualTo(pokemon.getId());
+        verify(eventPublisher).publishEvent(event(EntityChangedEvent.class, event -> event.getEventType() == ChangeType.CREATED
+                && event.getAggregateType().equals(EntityChangedEvent.REVIEW) && event.getPokemonId() == pokemon.getId()));
     }
 
     @Test
@@ -170,7 +189,7 @@ public class ReviewServiceTests {
 
         when(pokemonRepository.findById(pokemon.getId())).thenReturn(Optional.of(pokemon));
         when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
-        when(reviewRepository.save(review)).thenReturn(review);
+        when(reviewRepository.saveAndFlush(review)).thenReturn(review);
 
         ReviewDto updatedReview = reviewService.updateReview(pokemon.getId(), review.getId(), reviewDto);
 
@@ -178,6 +197,28 @@ public class ReviewServiceTests {
         assertThat(updatedReview.getPokemonId()).isNotNull();
     }
 
+    @Test
+    public void updateReview_validInput_returnsIncrementedVersion() {
+        review.setPokemon(pokemon);
+        review.setVersion(3);
+        reviewDto.setVersion(3);
+
+        when(pokemonRepository.findById(pokemon.getId())).thenReturn(Optional.of(pokemon));
+        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
+        // Hibernate increments the version when it flushes the update
+        when(reviewRepository.saveAndFlush(review)).thenAnswer(invocation -> {
+            review.setVersion(review.getVersion() + 1);
+            return review;
+        });
+
+        ReviewDto updatedReview = reviewService.updateReview(pokemon.getId(), review.getId(), reviewDto);
+
+        assertThat(updatedReview.getVersion()).isEqualTo(4);
+        verify(eventPublisher).publishEvent(event(EntityChangedEvent.class,
+                event -> ((ReviewDto) event.getPayload()).getVersion() == 4));
+        verify(reviewRepository, never()).save(any(Review.class));
+    }
+
     @Test
     public void deleteReview_validInput_returnVoid() {
         when(pokemonRepository.findById(anyInt())).thenReturn(Optional.ofNullable(pokemon));
@@ -217,4 +258,74 @@ public class ReviewServiceTests {
         verify(reviewRepository, never()).delete(review);
     }
 
+    @Test
+    public void getReviewsByPokemonIds_someMissing_returnGroupedReviewsAndMissingIds() {
+        Pokemon squirtle = Pokemon.builder().id(2).name("squirtle").type("water").build();
+        when(pokemonRepository.findIdsByIdIn(any())).thenReturn(Arrays.asList(1, 2));
+        when(reviewRepository.findByPokemonIdIn(any())).thenReturn(Arrays.asList(review));
+
+        ReviewBatchResponse response = reviewService.getReviewsByPokemonIds(Arrays.asList(2, 7, 1));
+
+        assertThat(response.getReviews().keySet()).containsExactly(2, 1);
+        assertThat(response.getReviews().get(1)).extracting(ReviewDto::getTitle).containsExactly(review.getTitle());
+        assertThat(response.getReviews().get(squirtle.getId())).isEmpty();
+        assertThat(response.getMissingPokemonIds()).containsExactly(7);
+    }
+
+    @Test
+    public void createReviews_missingPokemon_skipsItsReviews() {
+        ReviewDto orphan = ReviewDto.builder().title("orphan").stars(1).pokemonId(99).build();
+        when(pokemonRepository.findAllById(any())).thenReturn(List.of(pokemon));
+        when(reviewRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ReviewDto> created = reviewService.createReviews(List.of(reviewDto, orphan, reviewDto));
+
+        assertThat(created).hasSize(2).allMatch(review -> review.getPokemonId() == pokemon.getId());
+        verify(eventPublisher, times(2)).publishEvent(event(EntityChangedEvent.class, event -> event.getEventType() == ChangeType.CREATED
+                && event.getPokemonId() == pokemon.getId()));
+    }
+
+    @Test
+    public void createReview_validInput_publishesRatingChange() {
+        when(pokemonRepository.findById(pokemon.getId())).thenReturn(Optional.of(pokemon));
+        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+
+        reviewService.createReview(pokemon.getId(), reviewDto);
+
+        verify(eventPublisher).publishEvent(event(ReviewRatingChangedEvent.class, event -> event.getPokemonId() == pokemon.getId()
+                && event.getReviewCountDelta() == 1 && event.getStarsDelta() == review.getStars()));
+    }
+
+    @Test
+    public void patchReview_stars_publishesStarsDifference() {
+        when(reviewRepository.findStarsForUpdate(pokemon.getId(), review.getId())).thenReturn(2);
+        when(reviewRepository.patch(pokemon.getId(), review.getId(), null, null, 5, null)).thenReturn(1);
+        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
+
+        reviewService.patchReview(pokemon.getId(), review.getId(), ReviewDto.builder().stars(5).build());
+
+        verify(eventPublisher).publishEvent(event(ReviewRatingChangedEvent.class, event -> event.getReviewCountDelta() == 0
+                && event.getStarsDelta() == 3));
+    }
+
+    @Test
+    public void createReviews_validInput_stampsCreationTime() {
+        when(pokemonRepository.findAllById(any())).thenReturn(List.of(pokemon));
+        when(reviewRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ReviewDto> created = reviewService.createReviews(List.of(reviewDto, reviewDto));
+
+        assertThat(created).allSatisfy(review -> {
+            assertThat(review.getCreatedAt()).isNotNull();
+            assertThat(review.getUpdatedAt()).isEqualTo(review.getCreatedAt());
+        });
+        verify(eventPublisher, times(2)).publishEvent(event(ReviewRatingChangedEvent.class,
+                event -> event.getCreatedAt() != null && event.getCreatedAt().equals(created.get(0).getCreatedAt())));
+    }
+
+    // publishEvent receives several event types, so matchers check the type before looking at the event
+    private static <T> T event(Class<T> type, Predicate<T> predicate) {
+        return argThat(event -> type.isInstance(event) && predicate.test(type.cast(event)));
+    }
+
 }
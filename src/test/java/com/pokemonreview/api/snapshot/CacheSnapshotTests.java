@@ -0,0 +1,128 @@
+package com.pokemonreview.api.snapshot;
+
+import com.pokemonreview.api.catalog.PokemonCatalog;
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.LeaderboardEntryDto;
+import com.pokemonreview.api.leaderboard.ReviewLeaderboard;
+import com.pokemonreview.api.models.Pokemon;
+import com.pokemonreview.api.models.Review;
+import com.pokemonreview.api.reference.PokemonTypeDictionary;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.repository.ReviewRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(PokemonTypeDictionary.class)
+public class CacheSnapshotTests {
+
+    @Autowired
+    private PokemonRepository pokemonRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PokemonTypeDictionary pokemonTypes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<Flyway> flyway;
+
+    @TempDir
+    Path directory;
+
+    private ShardTemplate shardTemplate;
+    private Pokemon pikachu;
+
+    @BeforeEach
+    public void setUp() {
+        shardTemplate = new ShardTemplate(transactionManager, (ConsistentHashRing) null);
+        pikachu = pokemonRepository.save(Pokemon.builder().name("pikachu").type(pokemonTypes.intern("electric")).build());
+        Pokemon charmander = pokemonRepository.save(Pokemon.builder().name("charmander").type(pokemonTypes.intern("fire")).build());
+        reviewRepository.save(Review.builder().title("a").content("a").stars(5).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("b").content("b").stars(3).pokemon(pikachu).build());
+        reviewRepository.save(Review.builder().title("c").content("c").stars(4).pokemon(charmander).build());
+        reviewRepository.flush();
+    }
+
+    @Test
+    public void section_afterWrite_restoresCatalogAndLeaderboard() {
+        snapshot(catalog(null), leaderboard(null)).write();
+
+        CacheSnapshot loaded = snapshot(null, null);
+        PokemonCatalog catalog = catalog(loaded);
+        ReviewLeaderboard leaderboard = leaderboard(loaded);
+        pokemonRepository.deleteAll();
+
+        assertThat(catalog.getAllPokemon(0, 10).getContent()).hasSize(2);
+        assertThat(catalog.getPokemonById(pikachu.getId()).getType()).isEqualTo("electric");
+        assertThat(leaderboard.getMostReviewed(10)).extracting(LeaderboardEntryDto::getReviewCount).containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void section_databaseChangedSinceWrite_isDiscarded() {
+        snapshot(catalog(null), leaderboard(null)).write();
+
+        pikachu.setName("raichu");
+        pokemonRepository.flush();
+
+        assertThat(snapshot(null, null).section(PokemonCatalog.SNAPSHOT_SECTION)).isNull();
+        assertThat(snapshot(null, null).section(ReviewLeaderboard.SNAPSHOT_SECTION)).isNull();
+    }
+
+    @Test
+    public void write_catalogBehindDatabase_leavesItOut() {
+        PokemonCatalog catalog = catalog(null);
+        pokemonRepository.saveAndFlush(Pokemon.builder().name("vulpix").type(pokemonTypes.intern("fire")).build());
+
+        snapshot(catalog, leaderboard(null)).write();
+
+        CacheSnapshot loaded = snapshot(null, null);
+        assertThat(loaded.section(PokemonCatalog.SNAPSHOT_SECTION)).isNull();
+        assertThat(loaded.section(ReviewLeaderboard.SNAPSHOT_SECTION)).isNotNull();
+    }
+
+    private CacheSnapshot snapshot(PokemonCatalog catalog, ReviewLeaderboard leaderboard) {
+        return new CacheSnapshot(pokemonRepository, reviewRepository, shardTemplate, flyway, catalog, leaderboard,
+                directory.resolve("snapshot.bin"));
+    }
+
+    private PokemonCatalog catalog(CacheSnapshot snapshot) {
+        PokemonCatalog catalog = new PokemonCatalog(pokemonRepository, pokemonTypes, provider(snapshot));
+        catalog.start();
+        return catalog;
+    }
+
+    private ReviewLeaderboard leaderboard(CacheSnapshot snapshot) {
+        ReviewLeaderboard leaderboard = new ReviewLeaderboard(pokemonRepository, reviewRepository, shardTemplate, provider(snapshot));
+        leaderboard.start();
+        return leaderboard;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<CacheSnapshot> provider(CacheSnapshot snapshot) {
+        ObjectProvider<CacheSnapshot> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(snapshot);
+        return provider;
+    }
+}
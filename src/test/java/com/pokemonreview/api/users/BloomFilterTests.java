@@ -0,0 +1,55 @@
+package com.pokemonreview.api.users;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BloomFilterTests {
+
+    @Test
+    public void mightContain_putValues_neverMissesThem() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("trainer-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("trainer-" + i)).isTrue();
+        }
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    public void mightContain_absentValues_staysNearFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("trainer-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("rival-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // 1% expected; twice that would mean the hashes are not spreading
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    public void put_beyondExpectedInsertions_isSaturated() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.put("ash");
+        filter.put("misty");
+        filter.put("brock");
+
+        assertThat(filter.isSaturated()).isTrue();
+    }
+
+    @Test
+    public void constructor_invalidRate_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> new BloomFilter(100, 1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
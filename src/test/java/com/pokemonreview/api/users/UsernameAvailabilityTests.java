@@ -0,0 +1,86 @@
+package com.pokemonreview.api.users;
+
+import com.pokemonreview.api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UsernameAvailabilityTests {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    public void isTaken_unknownUsername_skipsDatabase() {
+        given(userRepository.findAllUsernames()).willReturn(List.of("ash", "misty"));
+        UsernameAvailability availability = new UsernameAvailability(userRepository, 1000, 0.001);
+        availability.rebuild();
+
+        assertThat(availability.isTaken("brock")).isFalse();
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    public void isTaken_existingUsername_confirmsInDatabase() {
+        given(userRepository.findAllUsernames()).willReturn(List.of("ash", "misty"));
+        given(userRepository.existsByUsername("ash")).willReturn(true);
+        UsernameAvailability availability = new UsernameAvailability(userRepository, 1000, 0.001);
+        availability.rebuild();
+
+        assertThat(availability.isTaken("ash")).isTrue();
+    }
+
+    @Test
+    public void registered_newUsername_isCheckedInDatabase() {
+        given(userRepository.findAllUsernames()).willReturn(List.of());
+        given(userRepository.existsByUsername("brock")).willReturn(true);
+        UsernameAvailability availability = new UsernameAvailability(userRepository, 1000, 0.001);
+        availability.rebuild();
+
+        availability.registered("brock");
+
+        assertThat(availability.isTaken("brock")).isTrue();
+    }
+
+    @Test
+    public void registered_beyondExpectedUsers_rebuildsFromDatabase() {
+        given(userRepository.findAllUsernames()).willReturn(List.of("ash"));
+        UsernameAvailability availability = new UsernameAvailability(userRepository, 2, 0.01);
+        availability.rebuild();
+
+        availability.registered("misty");
+        // the rebuild reads the users table before brock's insert commits
+        availability.registered("brock");
+
+        verify(userRepository, times(2)).findAllUsernames();
+        given(userRepository.existsByUsername("brock")).willReturn(true);
+        assertThat(availability.isTaken("brock")).isTrue();
+    }
+
+    @Test
+    public void registered_duringRebuild_isInNewFilter() {
+        given(userRepository.findAllUsernames()).willReturn(List.of("ash"));
+        UsernameAvailability availability = new UsernameAvailability(userRepository, 1000, 0.001);
+        availability.rebuild();
+        given(userRepository.findAllUsernames()).willAnswer(invocation -> {
+            availability.registered("gary");
+            return List.of("ash");
+        });
+
+        availability.rebuild();
+
+        given(userRepository.existsByUsername("gary")).willReturn(true);
+        assertThat(availability.isTaken("gary")).isTrue();
+    }
+}
@@ -0,0 +1,82 @@
+package com.pokemonreview.api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.dto.ReviewDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReviewJournalTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void recover_uncommittedEntries_returnsThemInOrder() throws IOException {
+        Path file = directory.resolve("journal.jsonl");
+        ReviewJournal journal = new ReviewJournal(objectMapper, file);
+        journal.recover();
+        ReviewJournal.Entry first = journal.append(1, review("first"));
+        ReviewJournal.Entry second = journal.append(2, review("second"));
+        ReviewJournal.Entry third = journal.append(1, review("third"));
+        journal.sync(third);
+        journal.commit(List.of(second));
+        journal.close();
+
+        ReviewJournal reopened = new ReviewJournal(objectMapper, file);
+        List<ReviewJournal.Entry> recovered = reopened.recover();
+
+        assertThat(recovered).extracting(entry -> entry.seq).containsExactly(first.seq, third.seq);
+        assertThat(recovered).extracting(entry -> entry.review.getTitle()).containsExactly("first", "third");
+        assertThat(reopened.append(3, review("fourth")).seq).isEqualTo(4);
+        reopened.close();
+    }
+
+    @Test
+    public void commit_everythingCommitted_emptiesFile() throws IOException {
+        Path file = directory.resolve("journal.jsonl");
+        ReviewJournal journal = new ReviewJournal(objectMapper, file);
+        journal.recover();
+        ReviewJournal.Entry first = journal.append(1, review("first"));
+        ReviewJournal.Entry second = journal.append(1, review("second"));
+
+        journal.commit(List.of(first));
+        assertThat(Files.size(file)).isPositive();
+        journal.commit(List.of(second));
+
+        assertThat(Files.size(file)).isZero();
+        assertThat(journal.getPendingCount()).isZero();
+        journal.close();
+    }
+
+    @Test
+    public void recover_partialLastLine_isDropped() throws IOException {
+        Path file = directory.resolve("journal.jsonl");
+        ReviewJournal journal = new ReviewJournal(objectMapper, file);
+        journal.recover();
+        journal.sync(journal.append(1, review("first")));
+        journal.close();
+        Files.write(file, "{\"seq\":2,\"pokemonId\":1,\"rev".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ReviewJournal reopened = new ReviewJournal(objectMapper, file);
+        List<ReviewJournal.Entry> recovered = reopened.recover();
+
+        assertThat(recovered).extracting(entry -> entry.review.getTitle()).containsExactly("first");
+        assertThat(Files.readString(file)).endsWith("}\n");
+        reopened.close();
+    }
+
+    private ReviewDto review(String title) {
+        return ReviewDto.builder().title(title).content("content").stars(4).build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.pokemonreview.api.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemonreview.api.config.ConsistentHashRing;
+import com.pokemonreview.api.config.ShardTemplate;
+import com.pokemonreview.api.dto.ReviewDto;
+import com.pokemonreview.api.exceptions.ReviewQueueFullException;
+import com.pokemonreview.api.repository.PokemonRepository;
+import com.pokemonreview.api.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReviewWriteBehindTests {
+
+    private final ReviewService reviewService = Mockito.mock(ReviewService.class);
+    private final PokemonRepository pokemonRepository = Mockito.mock(PokemonRepository.class);
+    private final ShardTemplate shardTemplate = new ShardTemplate(Mockito.mock(PlatformTransactionManager.class), (ConsistentHashRing) null);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void init() {
+        when(pokemonRepository.existsById(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    public void submit_queueFull_throwsReviewQueueFullException() throws IOException {
+        ReviewWriteBehind writeBehind = writeBehind(2);
+
+        writeBehind.submit(1, review("first"));
+        writeBehind.submit(1, review("second"));
+
+        assertThrows(ReviewQueueFullException.class, () -> writeBehind.submit(1, review("third")));
+        writeBehind.flushPending();
+        assertThat(writeBehind.submit(1, review("third")).getPokemonId()).isEqualTo(1);
+    }
+
+    @Test
+    public void flushPending_queuedReviews_savedInOneBatchAndJournalEmptied() throws IOException {
+        ReviewWriteBehind writeBehind = writeBehind(10);
+        writeBehind.submit(1, review("first"));
+        writeBehind.submit(2, review("second"));
+
+        writeBehind.flushPending();
+
+        verify(reviewService).createReviews(argThat(reviews -> reviews.size() == 2));
+        assertThat(writeBehind.getPendingCount()).isZero();
+        assertThat(Files.size(directory.resolve("journal.jsonl"))).isZero();
+    }
+
+    @Test
+    public void open_unsavedReviewsInJournal_savesThemAgain() throws IOException {
+        ReviewWriteBehind crashed = writeBehind(10);
+        crashed.submit(1, review("first"));
+        crashed.submit(1, review("second"));
+
+        ReviewWriteBehind restarted = writeBehind(10);
+        restarted.flushPending();
+
+        verify(reviewService).createReviews(argThat(reviews -> reviews.size() == 2
+                && reviews.get(0).getTitle().equals("first") && reviews.get(1).getTitle().equals("second")));
+    }
+
+    @Test
+    public void flushPending_rejectedReview_dropsOnlyThatReview() throws IOException {
+        when(reviewService.createReviews(anyList())).thenAnswer(invocation -> {
+            List<ReviewDto> reviews = invocation.getArgument(0);
+            if (reviews.stream().anyMatch(review -> review.getTitle().equals("bad"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return reviews;
+        });
+        ReviewWriteBehind writeBehind = writeBehind(10);
+        writeBehind.submit(1, review("good"));
+        writeBehind.submit(1, review("bad"));
+
+        writeBehind.flushPending();
+
+        verify(reviewService, times(3)).createReviews(anyList());
+        verify(reviewService).createReviews(argThat(reviews -> reviews.size() == 1 && reviews.get(0).getTitle().equals("good")));
+        assertThat(writeBehind.getPendingCount()).isZero();
+    }
+
+    private ReviewWriteBehind writeBehind(int capacity) throws IOException {
+        ReviewWriteBehind writeBehind = new ReviewWriteBehind(reviewService, pokemonRepository, shardTemplate, new ObjectMapper(),
+                directory.resolve("journal.jsonl"), capacity, 100);
+        writeBehind.open();
+        return writeBehind;
+    }
+
+    private ReviewDto review(String title) {
+        return ReviewDto.builder().title(title).content("content").stars(3).build();
+    }
+}